@@ -0,0 +1,144 @@
+package com.next.nest.index;
+
+import com.next.nest.entity.enums.FurnishingStatus;
+import com.next.nest.entity.enums.ListingStatus;
+import com.next.nest.entity.enums.PropertyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares {@link PropertyBitmapIndex} against the evaluation strategy of the
+ * Specification path: test every active row against the predicates, sort by
+ * creation time, count the matches and cut out the requested page.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyFilterBenchmark {
+
+    private static final String[] CITIES = {"Bengaluru", "Mumbai", "Pune", "Hyderabad", "Chennai", "Delhi", "Noida", "Gurugram"};
+    private static final String[] TENANT_TYPES = {"Family", "Bachelor", "Any"};
+
+    @Param({"100000", "1000000"})
+    private int listings;
+
+    private PropertyBitmapIndex index;
+    private List<PropertyDocument> rows;
+    private PropertyFilter selectiveFilter;
+    private PropertyFilter broadFilter;
+    private Pageable firstPage;
+    private Pageable deepPage;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new PropertyBitmapIndex();
+        rows = new ArrayList<>(listings);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (long id = 1; id <= listings; id++) {
+            PropertyDocument document = PropertyDocument.builder()
+                    .id(id)
+                    .ownerId(1L + random.nextInt(10_000))
+                    .city(CITIES[random.nextInt(CITIES.length)])
+                    .locality("Locality " + random.nextInt(200))
+                    .propertyType(PropertyType.values()[random.nextInt(PropertyType.values().length)])
+                    .bhkType(1 + random.nextInt(4))
+                    .rentAmount(BigDecimal.valueOf(5_000 + random.nextInt(95_000)))
+                    .furnishingStatus(FurnishingStatus.values()[random.nextInt(FurnishingStatus.values().length)])
+                    .propertyAge(random.nextInt(30))
+                    .parkingAvailable(random.nextBoolean())
+                    .preferredTenantType(TENANT_TYPES[random.nextInt(TENANT_TYPES.length)])
+                    .isReadyToMove(random.nextInt(10) < 8)
+                    .isPetFriendly(random.nextInt(10) < 3)
+                    .amenities(Set.of())
+                    .status(ListingStatus.ACTIVE)
+                    .isActive(true)
+                    .createdAt(now.minusMinutes(listings - id))
+                    .build();
+            rows.add(document);
+            index.index(document);
+        }
+        index.markReady();
+
+        selectiveFilter = PropertyFilter.builder()
+                .city("Pune")
+                .propertyType(PropertyType.FLAT)
+                .bhkType(2)
+                .minRent(BigDecimal.valueOf(18_000))
+                .maxRent(BigDecimal.valueOf(32_500))
+                .furnishingStatus(FurnishingStatus.SEMI_FURNISHED)
+                .isPetFriendly(true)
+                .build();
+        broadFilter = PropertyFilter.builder()
+                .city("Bengaluru")
+                .maxRent(BigDecimal.valueOf(60_000))
+                .build();
+        firstPage = PageRequest.of(0, 20);
+        deepPage = PageRequest.of(500, 20);
+    }
+
+    @Benchmark
+    public Page<Long> bitmapSelective() {
+        return index.findIds(selectiveFilter, firstPage);
+    }
+
+    @Benchmark
+    public Page<Long> scanSelective() {
+        return scan(selectiveFilter, firstPage);
+    }
+
+    @Benchmark
+    public Page<Long> bitmapBroadDeepPage() {
+        return index.findIds(broadFilter, deepPage);
+    }
+
+    @Benchmark
+    public Page<Long> scanBroadDeepPage() {
+        return scan(broadFilter, deepPage);
+    }
+
+    private Page<Long> scan(PropertyFilter filter, Pageable pageable) {
+        List<PropertyDocument> matches = rows.stream()
+                .filter(PropertyDocument::isSearchable)
+                .filter(filter::matches)
+                .sorted(Comparator.comparing(PropertyDocument::getCreatedAt).reversed())
+                .collect(Collectors.toList());
+
+        List<Long> content = matches.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(PropertyDocument::getId)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+}
@@ -0,0 +1,153 @@
+package com.next.nest.config;
+
+import com.next.nest.entity.enums.BookingStatus;
+import com.next.nest.index.BookingSlotIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Makes sure the database rejects overlapping slots of active bookings of a property, as
+ * {@link BookingSlotIndex} does in memory, so double bookings are impossible even between
+ * instances. The constraint is added by the Flyway {@code afterMigrate} script; on a fresh
+ * database the bookings table only exists once Hibernate has created it, after Flyway, so
+ * the script is run once more from here when the constraint is missing.
+ * <p>
+ * Active bookings that already overlap keep the constraint from being added. They are
+ * reported as a health detail instead of resolved, as only people can tell which of them
+ * should go; the application itself keeps working with the per-instance check.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingSlotConstraint implements HealthIndicator {
+
+    private static final String STATUS_CHECK = "bookings_status_check";
+
+    private static final String SCRIPT = "db/migration/afterMigrate.sql";
+
+    // Comment the script puts on the current definition of the constraint
+    private static final String DEFINITION = "active bookings, 60 minute slots";
+
+    // Bookings still to happen; the statuses the constraint in the script covers
+    private static final Set<BookingStatus> ACTIVE = Set.copyOf(EnumSet.of(BookingStatus.PENDING, BookingStatus.CONFIRMED));
+
+    private static final int MAX_REPORTED_OVERLAPS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Not used, but makes this run only once the schema is in place
+    private final EntityManagerFactory entityManagerFactory;
+
+    private volatile boolean inPlace;
+    private volatile List<String> overlaps = List.of();
+
+    @PostConstruct
+    public void ensureConstraint() {
+        ensureStatusCheck();
+        try {
+            inPlace = constraintExists();
+            if (!inPlace) {
+                ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(SCRIPT));
+                // The script is a single DO block, which must not be split at its semicolons
+                populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+                DatabasePopulatorUtils.execute(populator, jdbcTemplate.getDataSource());
+                inPlace = constraintExists();
+            }
+            if (!inPlace) {
+                overlaps = findOverlaps();
+                log.warn("Exclusion constraint {} is missing, overlapping bookings are only prevented per instance. " +
+                                "Overlapping active bookings (at most {} listed): {}",
+                        BookingSlotIndex.EXCLUSION_CONSTRAINT, MAX_REPORTED_OVERLAPS, overlaps);
+            }
+        } catch (DataAccessException e) {
+            log.error("Could not add exclusion constraint {}, overlapping bookings are only prevented per instance",
+                    BookingSlotIndex.EXCLUSION_CONSTRAINT, e);
+        }
+    }
+
+    /**
+     * Always up: without the constraint bookings are still checked per instance, so a
+     * missing constraint and leftover overlaps are details for people to act on.
+     */
+    @Override
+    public Health health() {
+        Health.Builder health = Health.up()
+                .withDetail("constraint", BookingSlotIndex.EXCLUSION_CONSTRAINT)
+                .withDetail("inPlace", inPlace);
+        if (!overlaps.isEmpty()) {
+            health.withDetail("overlappingBookings", overlaps);
+        }
+        return health.build();
+    }
+
+    private boolean constraintExists() {
+        return jdbcTemplate.queryForList("SELECT obj_description(oid, 'pg_constraint') FROM pg_constraint " +
+                "WHERE conname = ?", String.class, BookingSlotIndex.EXCLUSION_CONSTRAINT).contains(DEFINITION);
+    }
+
+    /**
+     * @return Pairs of active bookings of the same property that overlap, which keep the
+     * constraint from being added
+     */
+    private List<String> findOverlaps() {
+        String active = ACTIVE.stream()
+                .map(status -> "'" + status.name() + "'")
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return jdbcTemplate.query(
+                "SELECT a.property_id, a.id, a.scheduled_time, b.id, b.scheduled_time " +
+                        "FROM bookings a JOIN bookings b ON b.property_id = a.property_id AND b.id > a.id " +
+                        "AND b.scheduled_time < a.scheduled_time + " + slotInterval() + " " +
+                        "AND a.scheduled_time < b.scheduled_time + " + slotInterval() + " " +
+                        "WHERE a.status IN (" + active + ") AND b.status IN (" + active + ") " +
+                        "ORDER BY a.property_id, a.scheduled_time LIMIT " + MAX_REPORTED_OVERLAPS,
+                (rs, rowNum) -> "property " + rs.getLong(1) +
+                        ": booking " + rs.getLong(2) + " at " + rs.getTimestamp(3).toLocalDateTime() +
+                        " and booking " + rs.getLong(4) + " at " + rs.getTimestamp(5).toLocalDateTime());
+    }
+
+    private static String slotInterval() {
+        return "interval '" + BookingSlotIndex.SLOT.toMinutes() + " minutes'";
+    }
+
+    /**
+     * Hibernate creates a check constraint listing the statuses with the table, but does
+     * not update it when a status is added, so it is widened here.
+     */
+    private void ensureStatusCheck() {
+        try {
+            List<String> existing = jdbcTemplate.queryForList(
+                    "SELECT pg_get_constraintdef(oid) FROM pg_constraint WHERE conname = ?", String.class,
+                    STATUS_CHECK);
+            if (existing.isEmpty()
+                    || Arrays.stream(BookingStatus.values()).allMatch(status -> existing.get(0).contains(status.name()))) {
+                return;
+            }
+            String statuses = Arrays.stream(BookingStatus.values())
+                    .map(status -> "'" + status.name() + "'")
+                    .collect(Collectors.joining(", "));
+            jdbcTemplate.execute("ALTER TABLE bookings DROP CONSTRAINT " + STATUS_CHECK +
+                    ", ADD CONSTRAINT " + STATUS_CHECK + " CHECK (status IN (" + statuses + "))");
+            log.info("Updated check constraint {} to the current booking statuses", STATUS_CHECK);
+        } catch (DataAccessException e) {
+            log.error("Could not update check constraint {}, new booking statuses cannot be stored", STATUS_CHECK, e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.next.nest.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.next.nest.dto.ImageDTO;
+import com.next.nest.dto.PropertyDTO;
+import com.next.nest.dto.UserDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collection;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROPERTY_DETAILS = "propertyDetails";
+    public static final String BOOKING_STATISTICS = "bookingStatistics";
+
+    // Rough heap cost of a DTO without its strings and collections (headers, boxed numbers, enums)
+    private static final int PROPERTY_DETAILS_BASE_WEIGHT = 640;
+    private static final int STRING_OVERHEAD = 40;
+
+    /**
+     * Caches are registered up front so actuator binds their metrics ({@code cache.gets},
+     * {@code cache.puts}, {@code cache.evictions}, {@code cache.size}) at startup. Evictions
+     * are deferred until the surrounding transaction commits, so a concurrent read cannot
+     * put the pre-commit state back into the cache.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.property-details.maximum-weight:67108864}") long propertyDetailsMaximumWeight,
+            @Value("${app.cache.property-details.expire-after-write:PT30M}") Duration propertyDetailsExpireAfterWrite,
+            @Value("${app.cache.booking-statistics.expire-after-write:PT10S}") Duration bookingStatisticsExpireAfterWrite) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PROPERTY_DETAILS, Caffeine.newBuilder()
+                .maximumWeight(propertyDetailsMaximumWeight)
+                .weigher((Object id, Object property) -> weigh(property))
+                .expireAfterWrite(propertyDetailsExpireAfterWrite)
+                .recordStats()
+                .build());
+        // A short-lived snapshot: dashboards polling the statistics share one query per interval
+        cacheManager.registerCustomCache(BOOKING_STATISTICS, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(bookingStatisticsExpireAfterWrite)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * @return Approximate retained size of a cached listing in bytes
+     */
+    private static int weigh(Object value) {
+        if (!(value instanceof PropertyDTO property)) {
+            return PROPERTY_DETAILS_BASE_WEIGHT;
+        }
+
+        int weight = PROPERTY_DETAILS_BASE_WEIGHT
+                + weigh(property.getTitle())
+                + weigh(property.getDescription())
+                + weigh(property.getCity())
+                + weigh(property.getLocality())
+                + weigh(property.getFullAddress())
+                + weigh(property.getProjectName())
+                + weigh(property.getPreferredTenantType())
+                + weigh(property.getVerificationNotes())
+                + weigh(property.getAmenities())
+                + weigh(property.getImageUrls());
+
+        if (property.getImages() != null) {
+            for (ImageDTO image : property.getImages()) {
+                weight += STRING_OVERHEAD
+                        + weigh(image.getUrl())
+                        + weigh(image.getThumbnailUrl())
+                        + weigh(image.getMediumUrl())
+                        + weigh(image.getLargeUrl());
+            }
+        }
+
+        UserDTO owner = property.getOwner();
+        if (owner != null) {
+            weight += PROPERTY_DETAILS_BASE_WEIGHT / 2
+                    + weigh(owner.getFirstName())
+                    + weigh(owner.getLastName())
+                    + weigh(owner.getEmail())
+                    + weigh(owner.getPhoneNumber())
+                    + weigh(owner.getProfileImageUrl());
+        }
+        return weight;
+    }
+
+    private static int weigh(Collection<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        int weight = STRING_OVERHEAD;
+        for (String value : values) {
+            weight += weigh(value);
+        }
+        return weight;
+    }
+
+    private static int weigh(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + value.length();
+    }
+}
@@ -0,0 +1,56 @@
+package com.next.nest.config;
+
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+@ConditionalOnProperty(name = "app.file.s3.enabled", havingValue = "true")
+public class S3Config {
+
+    /**
+     * Credentials come from the default AWS provider chain. Setting an endpoint points the
+     * client at an S3-compatible server instead of AWS, e.g. MinIO or an in-process stand-in
+     * in tests, which usually also needs path-style access.
+     */
+    @Bean
+    public AmazonS3 amazonS3(@Value("${app.file.s3.region}") String region,
+                             @Value("${app.file.s3.endpoint:}") String endpoint,
+                             @Value("${app.file.s3.path-style-access:false}") boolean pathStyleAccess) {
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+                .withPathStyleAccessEnabled(pathStyleAccess);
+        if (StringUtils.hasText(endpoint)) {
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region));
+        } else {
+            builder.withRegion(region);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Files above the threshold are sent as multipart uploads whose parts go up in parallel
+     * on the transfer manager's own pool.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public TransferManager transferManager(AmazonS3 amazonS3,
+                                           @Value("${app.file.s3.multipart-threshold:16MB}") DataSize multipartThreshold,
+                                           @Value("${app.file.s3.multipart-part-size:8MB}") DataSize partSize,
+                                           @Value("${app.file.s3.multipart-concurrency:8}") int concurrency) {
+        return TransferManagerBuilder.standard()
+                .withS3Client(amazonS3)
+                .withMultipartUploadThreshold(multipartThreshold.toBytes())
+                .withMinimumUploadPartSize(partSize.toBytes())
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(concurrency))
+                .build();
+    }
+}
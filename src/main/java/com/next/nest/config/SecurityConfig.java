@@ -24,6 +24,7 @@ public class SecurityConfig {
 
     private static final String[] PUBLIC_URLS = {
             "/api/v1/auth/**",
+            "/files/**",
             "/v3/api-docs/**",
             "/api-docs/**",
             "/swagger-ui/**",
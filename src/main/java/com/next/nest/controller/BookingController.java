@@ -0,0 +1,104 @@
+package com.next.nest.controller;
+
+import com.next.nest.dto.BookingDTO;
+import com.next.nest.service.BookingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/bookings")
+@RequiredArgsConstructor
+@Tag(name = "Bookings", description = "Property visit booking API")
+@SecurityRequirement(name = "bearerAuth")
+public class BookingController {
+
+    private final BookingService bookingService;
+
+    @GetMapping("/properties/{propertyId}/free-slots")
+    @Operation(
+        summary = "Get free visit slots",
+        description = "Get the start times of all 30 minute visits between 09:00 and 19:00 that can still be " +
+                "booked for a property, for every day of a date range of at most 31 days",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Free slots retrieved successfully"
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Invalid date range"
+            ),
+            @ApiResponse(
+                responseCode = "404",
+                description = "Property not found"
+            )
+        }
+    )
+    public ResponseEntity<List<LocalDateTime>> getFreeSlots(
+            @Parameter(description = "Property ID") @PathVariable Long propertyId,
+            @Parameter(description = "First day (yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Last day (yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) {
+        return ResponseEntity.ok(bookingService.findFreeSlots(propertyId, startDate, endDate));
+    }
+
+    @GetMapping("/upcoming")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Get upcoming bookings",
+        description = "Get the next bookings that are not cancelled, soonest first (Admin only)",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Upcoming bookings retrieved successfully"
+            ),
+            @ApiResponse(
+                responseCode = "403",
+                description = "Not authorized"
+            )
+        }
+    )
+    public ResponseEntity<List<BookingDTO>> getUpcomingBookings(
+            @Parameter(description = "Number of bookings to return") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(bookingService.findUpcomingBookings(limit));
+    }
+
+    @GetMapping("/owners/{ownerId}/upcoming")
+    @Operation(
+        summary = "Get upcoming bookings of an owner",
+        description = "Get the next bookings of an owner's properties that are not cancelled, soonest first",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Upcoming bookings retrieved successfully"
+            ),
+            @ApiResponse(
+                responseCode = "401",
+                description = "Not authorized to view these bookings"
+            )
+        }
+    )
+    public ResponseEntity<List<BookingDTO>> getUpcomingBookingsByOwner(
+            @Parameter(description = "Owner ID") @PathVariable Long ownerId,
+            @Parameter(description = "Number of bookings to return") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(bookingService.findUpcomingBookingsByOwnerId(ownerId, limit));
+    }
+}
@@ -0,0 +1,363 @@
+package com.next.nest.controller;
+
+import com.next.nest.dto.FileUploadRequestDTO;
+import com.next.nest.dto.PresignedUploadDTO;
+import com.next.nest.dto.PropertyDTO;
+import com.next.nest.dto.PropertyImportResultDTO;
+import com.next.nest.dto.PropertySearchResultDTO;
+import com.next.nest.dto.RentStatisticsDTO;
+import com.next.nest.dto.SuggestionDTO;
+import com.next.nest.entity.enums.FurnishingStatus;
+import com.next.nest.entity.enums.PropertyType;
+import com.next.nest.service.PropertyImportService;
+import com.next.nest.service.PropertyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/properties")
+@RequiredArgsConstructor
+@Tag(name = "Properties", description = "Property listing API")
+@SecurityRequirement(name = "bearerAuth")
+public class PropertyController {
+
+    private final PropertyService propertyService;
+    private final PropertyImportService propertyImportService;
+
+    @GetMapping("/search")
+    @Operation(
+        summary = "Search properties",
+        description = "Full-text search over active listings with optional filters and facet counts",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Search results retrieved successfully",
+                content = @Content(schema = @Schema(implementation = PropertySearchResultDTO.class))
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Invalid filter value"
+            )
+        }
+    )
+    public ResponseEntity<PropertySearchResultDTO> searchProperties(
+            @Parameter(description = "Search terms (optional)") @RequestParam(required = false) String query,
+            @Parameter(description = "City") @RequestParam(required = false) String city,
+            @Parameter(description = "Property type") @RequestParam(required = false) PropertyType propertyType,
+            @Parameter(description = "BHK type") @RequestParam(required = false) Integer bhkType,
+            @Parameter(description = "Minimum rent") @RequestParam(required = false) BigDecimal minRent,
+            @Parameter(description = "Maximum rent") @RequestParam(required = false) BigDecimal maxRent,
+            @Parameter(description = "Furnishing status") @RequestParam(required = false) FurnishingStatus furnishingStatus,
+            @Parameter(description = "Ready to move") @RequestParam(required = false) Boolean isReadyToMove,
+            @Parameter(description = "Pet friendly") @RequestParam(required = false) Boolean isPetFriendly,
+            @Parameter(description = "Parking available") @RequestParam(required = false) Boolean parkingAvailable,
+            @Parameter(description = "Maximum property age in years") @RequestParam(required = false) Integer propertyAge,
+            @Parameter(description = "Preferred tenant type") @RequestParam(required = false) String preferredTenantType,
+            @Parameter(description = "Include facet counts") @RequestParam(defaultValue = "false") boolean facets,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size
+    ) {
+        Map<String, Object> filters = additionalFilters(furnishingStatus, isReadyToMove, isPetFriendly,
+                parkingAvailable, propertyAge, preferredTenantType);
+        putIfPresent(filters, "city", city);
+        putIfPresent(filters, "propertyType", propertyType);
+        putIfPresent(filters, "bhkType", bhkType);
+        putIfPresent(filters, "minRent", minRent);
+        putIfPresent(filters, "maxRent", maxRent);
+
+        return ResponseEntity.ok(propertyService.searchProperties(query, filters, page, size, facets));
+    }
+
+    @GetMapping("/filter")
+    @Operation(
+        summary = "Filter properties",
+        description = "Get active listings matching the filters, newest first, with optional facet counts",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Properties retrieved successfully",
+                content = @Content(schema = @Schema(implementation = PropertySearchResultDTO.class))
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Invalid filter value"
+            )
+        }
+    )
+    public ResponseEntity<PropertySearchResultDTO> filterProperties(
+            @Parameter(description = "City") @RequestParam(required = false) String city,
+            @Parameter(description = "Property type") @RequestParam(required = false) PropertyType propertyType,
+            @Parameter(description = "BHK type") @RequestParam(required = false) Integer bhkType,
+            @Parameter(description = "Minimum rent") @RequestParam(required = false) BigDecimal minRent,
+            @Parameter(description = "Maximum rent") @RequestParam(required = false) BigDecimal maxRent,
+            @Parameter(description = "Furnishing status") @RequestParam(required = false) FurnishingStatus furnishingStatus,
+            @Parameter(description = "Ready to move") @RequestParam(required = false) Boolean isReadyToMove,
+            @Parameter(description = "Pet friendly") @RequestParam(required = false) Boolean isPetFriendly,
+            @Parameter(description = "Parking available") @RequestParam(required = false) Boolean parkingAvailable,
+            @Parameter(description = "Maximum property age in years") @RequestParam(required = false) Integer propertyAge,
+            @Parameter(description = "Preferred tenant type") @RequestParam(required = false) String preferredTenantType,
+            @Parameter(description = "Include facet counts") @RequestParam(defaultValue = "false") boolean facets,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size
+    ) {
+        Map<String, Object> filters = additionalFilters(furnishingStatus, isReadyToMove, isPetFriendly,
+                parkingAvailable, propertyAge, preferredTenantType);
+
+        return ResponseEntity.ok(propertyService.findByFilters(city, propertyType, bhkType, minRent, maxRent,
+                filters, page, size, facets));
+    }
+
+    @GetMapping("/amenities")
+    @Operation(
+        summary = "Find properties by amenities",
+        description = "Get active listings having at least the given number of the requested amenities " +
+                "(all of them by default), most matched first",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Properties retrieved successfully"
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Empty amenity list or invalid minimum"
+            )
+        }
+    )
+    public ResponseEntity<Page<PropertyDTO>> findByAmenities(
+            @Parameter(description = "Requested amenities") @RequestParam List<String> amenities,
+            @Parameter(description = "Minimum number of requested amenities to match (optional)") @RequestParam(required = false) Integer minMatches,
+            @Parameter(description = "City") @RequestParam(required = false) String city,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size
+    ) {
+        Map<String, Object> filters = new HashMap<>();
+        putIfPresent(filters, "city", city);
+
+        if (minMatches == null) {
+            return ResponseEntity.ok(propertyService.findByAmenities(amenities, filters, page, size));
+        }
+        return ResponseEntity.ok(propertyService.findByAmenities(amenities, minMatches, filters, page, size));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('LANDLORD', 'BROKER', 'ADMIN')")
+    @Operation(
+        summary = "Import properties",
+        description = "Create listings owned by the current user from a CSV file with a header row (list cells " +
+                "separated by ';') or a newline-delimited JSON file. Invalid rows are reported and skipped",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Import finished, possibly with rejected rows",
+                content = @Content(schema = @Schema(implementation = PropertyImportResultDTO.class))
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Empty, unreadable or unsupported file"
+            )
+        }
+    )
+    public ResponseEntity<PropertyImportResultDTO> importProperties(
+            @Parameter(description = "CSV (.csv) or NDJSON (.ndjson, .jsonl) file") @RequestParam("file") MultipartFile file
+    ) {
+        return ResponseEntity.ok(propertyImportService.importProperties(file));
+    }
+
+    @PostMapping("/{id}/images/uploads")
+    @PreAuthorize("hasAnyRole('LANDLORD', 'BROKER', 'ADMIN')")
+    @Operation(
+        summary = "Create a direct image upload",
+        description = "Get a presigned URL to PUT an image of the property straight to file storage. Once the " +
+                "upload is done, complete it with the returned key. Only available with S3 file storage",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Upload created",
+                content = @Content(schema = @Schema(implementation = PresignedUploadDTO.class))
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Not an image, or direct uploads not available"
+            ),
+            @ApiResponse(
+                responseCode = "404",
+                description = "Property not found"
+            )
+        }
+    )
+    public ResponseEntity<PresignedUploadDTO> createImageUpload(
+            @Parameter(description = "Property ID") @PathVariable Long id,
+            @Valid @RequestBody FileUploadRequestDTO request
+    ) {
+        return ResponseEntity.ok(propertyService.createImageUpload(id, request));
+    }
+
+    @PostMapping("/{id}/images/uploads/complete")
+    @PreAuthorize("hasAnyRole('LANDLORD', 'BROKER', 'ADMIN')")
+    @Operation(
+        summary = "Complete direct image uploads",
+        description = "Add images uploaded through presigned URLs to the property",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Images added successfully",
+                content = @Content(schema = @Schema(implementation = PropertyDTO.class))
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Unknown, foreign or oversized upload"
+            ),
+            @ApiResponse(
+                responseCode = "404",
+                description = "Property not found"
+            )
+        }
+    )
+    public ResponseEntity<PropertyDTO> completeImageUploads(
+            @Parameter(description = "Property ID") @PathVariable Long id,
+            @Parameter(description = "Keys of the finished uploads") @RequestBody List<String> keys
+    ) {
+        return ResponseEntity.ok(propertyService.completeImageUploads(id, keys));
+    }
+
+    @GetMapping("/{id}/similar")
+    @Operation(
+        summary = "Find similar properties",
+        description = "Get the active listings most similar to a listing by rent, size, location, furnishing " +
+                "and amenities, as of the last nightly computation",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Similar properties retrieved successfully"
+            ),
+            @ApiResponse(
+                responseCode = "404",
+                description = "Property not found"
+            )
+        }
+    )
+    public ResponseEntity<List<PropertyDTO>> findSimilar(
+            @Parameter(description = "Property ID") @PathVariable Long id,
+            @Parameter(description = "Maximum number of listings (at most 10)") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(propertyService.findSimilarProperties(id, limit));
+    }
+
+    @GetMapping("/rent-statistics")
+    @Operation(
+        summary = "Get rent statistics",
+        description = "Get the mean, median and 90th percentile rent and rent per square foot of the active and " +
+                "rented listings of a city, optionally narrowed to a locality and BHK type",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Rent statistics retrieved successfully",
+                content = @Content(schema = @Schema(implementation = RentStatisticsDTO.class))
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Missing city"
+            )
+        }
+    )
+    public ResponseEntity<RentStatisticsDTO> getRentStatistics(
+            @Parameter(description = "City") @RequestParam String city,
+            @Parameter(description = "Locality (optional)") @RequestParam(required = false) String locality,
+            @Parameter(description = "BHK type (optional)") @RequestParam(required = false) Integer bhkType
+    ) {
+        return ResponseEntity.ok(propertyService.getRentStatistics(city, locality, bhkType));
+    }
+
+    @GetMapping("/typeahead")
+    @Operation(
+        summary = "Autocomplete locations",
+        description = "Suggest cities, localities and projects starting with the typed text, most listed first",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Suggestions retrieved successfully"
+            )
+        }
+    )
+    public ResponseEntity<List<SuggestionDTO>> typeahead(
+            @Parameter(description = "Text typed so far") @RequestParam String query,
+            @Parameter(description = "Maximum number of suggestions (at most 10)") @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(propertyService.suggest(query, limit));
+    }
+
+    @GetMapping("/cities")
+    @Operation(
+        summary = "Get cities",
+        description = "Get the cities with active listings",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Cities retrieved successfully"
+            )
+        }
+    )
+    public ResponseEntity<List<String>> getCities() {
+        return ResponseEntity.ok(propertyService.getDistinctCities());
+    }
+
+    @GetMapping("/cities/{city}/localities")
+    @Operation(
+        summary = "Get localities",
+        description = "Get the localities of a city with active listings",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Localities retrieved successfully"
+            )
+        }
+    )
+    public ResponseEntity<List<String>> getLocalities(
+            @Parameter(description = "City") @PathVariable String city
+    ) {
+        return ResponseEntity.ok(propertyService.getDistinctLocalitiesByCity(city));
+    }
+
+    private static Map<String, Object> additionalFilters(FurnishingStatus furnishingStatus, Boolean isReadyToMove,
+                                                         Boolean isPetFriendly, Boolean parkingAvailable,
+                                                         Integer propertyAge, String preferredTenantType) {
+        Map<String, Object> filters = new HashMap<>();
+        putIfPresent(filters, "furnishingStatus", furnishingStatus);
+        putIfPresent(filters, "isReadyToMove", isReadyToMove);
+        putIfPresent(filters, "isPetFriendly", isPetFriendly);
+        putIfPresent(filters, "parkingAvailable", parkingAvailable);
+        putIfPresent(filters, "propertyAge", propertyAge);
+        putIfPresent(filters, "preferredTenantType", preferredTenantType);
+        return filters;
+    }
+
+    private static void putIfPresent(Map<String, Object> filters, String key, Object value) {
+        if (value != null) {
+            filters.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.next.nest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FileUploadRequestDTO {
+    
+    @NotBlank(message = "Filename is required")
+    private String filename;
+    
+    @NotBlank(message = "Content type is required")
+    private String contentType;
+}
@@ -0,0 +1,27 @@
+package com.next.nest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An uploaded image with the URLs of its resized copies. The copies are generated in the
+ * background after the upload, so until they exist clients should fall back to {@code url}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImageDTO {
+
+    private String url;
+
+    private String thumbnailUrl;
+
+    private String mediumUrl;
+
+    private String largeUrl;
+}
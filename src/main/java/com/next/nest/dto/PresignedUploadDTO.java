@@ -0,0 +1,30 @@
+package com.next.nest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PresignedUploadDTO {
+    
+    // Identifies the upload when completing it
+    private String key;
+    
+    private String uploadUrl;
+    
+    private String method;
+    
+    // Headers the upload request must send exactly as given, since they are part of the signature
+    private Map<String, String> headers;
+    
+    private LocalDateTime expiresAt;
+}
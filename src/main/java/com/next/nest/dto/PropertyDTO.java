@@ -105,6 +105,8 @@ public class PropertyDTO {
     
     private List<String> imageUrls;
     
+    private List<ImageDTO> images;
+    
     private Boolean isActive;
     
     private Boolean isVerified;
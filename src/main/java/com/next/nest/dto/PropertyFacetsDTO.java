@@ -0,0 +1,36 @@
+package com.next.nest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Number of matching listings per attribute value, for the facets of a search page.
+ * Values without matches are omitted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PropertyFacetsDTO {
+    
+    private Map<String, Integer> city;
+    
+    private Map<String, Integer> locality;
+    
+    private Map<String, Integer> propertyType;
+    
+    private Map<String, Integer> bhkType;
+    
+    private Map<String, Integer> furnishingStatus;
+    
+    // Keyed by "from-to", rent ranges are half-open and ordered by rent
+    private Map<String, Integer> rentRange;
+    
+    private Map<String, Integer> amenities;
+}
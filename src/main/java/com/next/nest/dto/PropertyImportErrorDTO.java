@@ -0,0 +1,22 @@
+package com.next.nest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PropertyImportErrorDTO {
+    
+    // 1-based number of the record in the file, not counting the CSV header
+    private Integer row;
+    
+    private List<String> messages;
+}
@@ -0,0 +1,26 @@
+package com.next.nest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PropertyImportResultDTO {
+    
+    private Integer totalRows;
+    
+    private Integer importedCount;
+    
+    private Integer failedCount;
+    
+    // Rows that were not imported, in file order; every other row was
+    private List<PropertyImportErrorDTO> errors;
+}
@@ -0,0 +1,21 @@
+package com.next.nest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PropertySearchResultDTO {
+    
+    private Page<PropertyDTO> results;
+    
+    // Only present when requested and the in-memory indexes are ready
+    private PropertyFacetsDTO facets;
+}
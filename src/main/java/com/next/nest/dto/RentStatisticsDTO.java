@@ -0,0 +1,44 @@
+package com.next.nest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Rent distribution of the listed and rented properties of a city, optionally narrowed to
+ * a locality and a BHK type. Medians and 90th percentiles are within 1% of the exact value.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RentStatisticsDTO {
+    
+    private String city;
+    
+    private String locality;
+    
+    private Integer bhkType;
+    
+    private Long listingCount;
+    
+    private BigDecimal meanRent;
+    
+    private BigDecimal medianRent;
+    
+    private BigDecimal p90Rent;
+    
+    // Only listings with a floor area contribute to the per square foot figures
+    private Long listingWithAreaCount;
+    
+    private BigDecimal meanRentPerSquareFoot;
+    
+    private BigDecimal medianRentPerSquareFoot;
+    
+    private BigDecimal p90RentPerSquareFoot;
+}
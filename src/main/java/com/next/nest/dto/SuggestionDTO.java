@@ -0,0 +1,25 @@
+package com.next.nest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.next.nest.index.PropertyTypeaheadIndex.SuggestionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SuggestionDTO {
+
+    private SuggestionType type;
+
+    private String text;
+
+    // City the locality or project belongs to, absent for city suggestions
+    private String city;
+
+    private Integer listingCount;
+}
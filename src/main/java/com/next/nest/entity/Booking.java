@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -22,7 +23,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_tenant_scheduled_time_id", columnList = "tenant_id, scheduled_time, id"),
+        @Index(name = "idx_bookings_scheduled_time_id", columnList = "scheduled_time, id"),
+        @Index(name = "idx_bookings_status_scheduled_time", columnList = "status, scheduled_time"),
+        @Index(name = "idx_bookings_status_created_at", columnList = "status, created_at")
+})
 @Getter
 @Setter
 @Builder
@@ -76,6 +82,10 @@ public class Booking extends BaseEntity {
     @Column(length = 500)
     private String feedbackFromTenant;
 
+    // Reminders sent for the current scheduled time: 1 after the day-before one, 2 after the hour-before one
+    @Column(columnDefinition = "smallint not null default 0")
+    private int remindersSent;
+
     private Integer ratingFromTenant;
 
     private LocalDateTime completedAt;
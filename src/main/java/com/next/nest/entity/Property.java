@@ -11,6 +11,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -28,7 +29,12 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "properties")
+@Table(name = "properties", indexes = {
+        @Index(name = "idx_properties_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_properties_owner_created_at_id", columnList = "owner_id, created_at, id"),
+        @Index(name = "idx_properties_city_created_at_id", columnList = "city, created_at, id"),
+        @Index(name = "idx_properties_latitude_longitude", columnList = "latitude, longitude")
+})
 @Getter
 @Setter
 @Builder
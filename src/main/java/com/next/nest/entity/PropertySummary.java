@@ -0,0 +1,57 @@
+package com.next.nest.entity;
+
+import com.next.nest.entity.enums.UserRole;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Denormalized read model for property list views: the owner display fields and the
+ * booking and maintenance request counters, keyed by the property id. It lets a page of
+ * properties be mapped without touching the owner or the child collections.
+ */
+@Entity
+@Table(name = "property_summaries", indexes = {
+        @Index(name = "idx_property_summaries_owner_id", columnList = "owner_id")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertySummary {
+
+    @Id
+    private Long propertyId;
+
+    @Column(nullable = false)
+    private Long ownerId;
+
+    private String ownerFirstName;
+
+    private String ownerLastName;
+
+    private String ownerEmail;
+
+    private String ownerPhoneNumber;
+
+    private String ownerProfileImageUrl;
+
+    @Enumerated(EnumType.STRING)
+    private UserRole ownerRole;
+
+    @Column(nullable = false)
+    private long bookingCount;
+
+    @Column(nullable = false)
+    private long maintenanceRequestCount;
+}
@@ -1,9 +1,21 @@
 package com.next.nest.entity.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     PENDING,
     CONFIRMED,
     COMPLETED,
     CANCELLED,
-    NO_SHOW
-}
\ No newline at end of file
+    NO_SHOW,
+    // Still pending when its time came
+    EXPIRED;
+
+    // Bookings in these statuses no longer hold their slot
+    public static final Set<BookingStatus> FREE = Set.copyOf(EnumSet.of(CANCELLED, EXPIRED));
+
+    public boolean holdsSlot() {
+        return !FREE.contains(this);
+    }
+}
@@ -0,0 +1,16 @@
+package com.next.nest.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the booking write path after a booking has been saved.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BookingCreatedEvent {
+
+    private final Long bookingId;
+    private final Long tenantId;
+    private final Long propertyId;
+}
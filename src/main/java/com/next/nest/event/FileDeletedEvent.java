@@ -0,0 +1,14 @@
+package com.next.nest.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the file storage backends after a stored file has been deleted.
+ */
+@Getter
+@RequiredArgsConstructor
+public class FileDeletedEvent {
+
+    private final String fileUrl;
+}
@@ -0,0 +1,16 @@
+package com.next.nest.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the file storage backends after an uploaded file has been stored.
+ */
+@Getter
+@RequiredArgsConstructor
+public class FileStoredEvent {
+
+    private final String fileUrl;
+
+    private final String contentType;
+}
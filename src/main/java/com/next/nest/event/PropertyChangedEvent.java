@@ -0,0 +1,16 @@
+package com.next.nest.event;
+
+import com.next.nest.index.PropertyDocument;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the property write paths after a listing has been saved.
+ * Carries the state of the listing as it will be committed.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PropertyChangedEvent {
+
+    private final PropertyDocument document;
+}
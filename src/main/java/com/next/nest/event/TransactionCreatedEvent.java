@@ -0,0 +1,17 @@
+package com.next.nest.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by the payment write paths after a transaction has been saved.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TransactionCreatedEvent {
+
+    private final Long transactionId;
+
+    // Property of the transaction's booking, null when it is not for a booking
+    private final Long propertyId;
+}
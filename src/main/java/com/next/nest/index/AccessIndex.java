@@ -0,0 +1,128 @@
+package com.next.nest.index;
+
+import com.next.nest.event.BookingCreatedEvent;
+import com.next.nest.event.TransactionCreatedEvent;
+import com.next.nest.repository.BookingRepository;
+import com.next.nest.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who owns which property, which properties each tenant has booked and which property each
+ * booking's transaction is for, so access checks are hash lookups instead of walks over lazy
+ * associations (booking, property, owner).
+ * <p>
+ * Ownership comes from the listings fed by {@link PropertyIndexSynchronizer}. Bookings and
+ * transactions are never deleted, so their relations only grow: they are loaded once at
+ * startup and added as committed writes publish their events, and the order in which the
+ * two arrive does not matter.
+ * <p>
+ * Only writes on this node are seen, so a hit may grant access but a miss is never final:
+ * callers confirm it against the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccessIndex implements PropertyIndex {
+
+    private final BookingRepository bookingRepository;
+    private final TransactionRepository transactionRepository;
+
+    private final Map<Long, Long> ownerByProperty = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> propertiesByOwner = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> bookedPropertiesByTenant = new ConcurrentHashMap<>();
+    private final Map<Long, Long> propertyByTransaction = new ConcurrentHashMap<>();
+
+    private volatile boolean propertiesReady;
+    private volatile boolean participationReady;
+
+    @Override
+    public synchronized void index(PropertyDocument document) {
+        Long previousOwner = ownerByProperty.put(document.getId(), document.getOwnerId());
+        if (previousOwner != null && !previousOwner.equals(document.getOwnerId())) {
+            Set<Long> owned = propertiesByOwner.get(previousOwner);
+            if (owned != null) {
+                owned.remove(document.getId());
+            }
+        }
+        propertiesByOwner.computeIfAbsent(document.getOwnerId(), id -> ConcurrentHashMap.newKeySet())
+                .add(document.getId());
+    }
+
+    @Override
+    public void markReady() {
+        propertiesReady = true;
+        log.info("Access index has the owners of {} listings", ownerByProperty.size());
+    }
+
+    @Override
+    public boolean isReady() {
+        return propertiesReady && participationReady;
+    }
+
+    public boolean ownsProperty(Long userId, Long propertyId) {
+        return propertyId != null && userId.equals(ownerByProperty.get(propertyId));
+    }
+
+    public Set<Long> findPropertiesOwnedBy(Long userId) {
+        return Set.copyOf(propertiesByOwner.getOrDefault(userId, Set.of()));
+    }
+
+    public boolean hasBookedProperty(Long userId, Long propertyId) {
+        Set<Long> booked = bookedPropertiesByTenant.get(userId);
+        return booked != null && booked.contains(propertyId);
+    }
+
+    /**
+     * @return Whether the transaction is for a booking of a property the user owns
+     */
+    public boolean ownsTransactionProperty(Long userId, Long transactionId) {
+        return ownsProperty(userId, propertyByTransaction.get(transactionId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingCreated(BookingCreatedEvent event) {
+        addBooking(event.getTenantId(), event.getPropertyId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionCreated(TransactionCreatedEvent event) {
+        if (event.getPropertyId() != null) {
+            propertyByTransaction.put(event.getTransactionId(), event.getPropertyId());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+
+        List<Object[]> bookings = bookingRepository.findTenantPropertyPairs();
+        for (Object[] booking : bookings) {
+            addBooking((Long) booking[0], (Long) booking[1]);
+        }
+
+        List<Object[]> transactions = transactionRepository.findAccessEntries();
+        for (Object[] transaction : transactions) {
+            propertyByTransaction.put((Long) transaction[0], (Long) transaction[1]);
+        }
+
+        participationReady = true;
+        log.info("Access index loaded {} tenant bookings and {} booking transactions in {} ms",
+                bookings.size(), transactions.size(), System.currentTimeMillis() - start);
+    }
+
+    private void addBooking(Long tenantId, Long propertyId) {
+        bookedPropertiesByTenant.computeIfAbsent(tenantId, id -> ConcurrentHashMap.newKeySet()).add(propertyId);
+    }
+}
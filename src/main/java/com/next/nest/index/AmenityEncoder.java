@@ -0,0 +1,55 @@
+package com.next.nest.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary encoding of amenities as bitmasks: every distinct amenity gets a bit position
+ * the first time it is seen, and a set of amenities becomes an array of {@code long} words
+ * (one word covers 64 amenities), so comparing two sets is a bitwise AND or OR and a
+ * population count per word.
+ * <p>
+ * Not thread-safe; callers guard it as they guard the masks it produced.
+ */
+class AmenityEncoder {
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    /**
+     * Encode the amenities, giving the ones not seen before the next free bits.
+     */
+    long[] encode(Collection<String> amenities) {
+        long[] mask = new long[0];
+        for (String amenity : amenities) {
+            int bit = dictionary.computeIfAbsent(amenity, key -> dictionary.size());
+            if (bit >>> 6 >= mask.length) {
+                mask = Arrays.copyOf(mask, (bit >>> 6) + 1);
+            }
+            mask[bit >>> 6] |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * @return The bit of the amenity, or null if it has not been seen
+     */
+    Integer bitOf(String amenity) {
+        return dictionary.get(amenity);
+    }
+
+    /**
+     * @return Number of distinct amenities seen
+     */
+    int size() {
+        return dictionary.size();
+    }
+
+    /**
+     * @return Number of words a mask of every amenity seen needs
+     */
+    int wordCount() {
+        return (dictionary.size() + 63) >>> 6;
+    }
+}
@@ -0,0 +1,421 @@
+package com.next.nest.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.next.nest.entity.enums.BookingStatus;
+import com.next.nest.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The booked slots of every property, for availability checks without a query.
+ * <p>
+ * A booking holds its property from its scheduled time for {@link #SLOT}: the visit plus
+ * the buffer before the next one. All slots have the same length, so two overlap exactly
+ * when their starts are less than one slot apart, and a sorted map of start times per
+ * property answers an overlap query with one range lookup. Check and reserve happen under
+ * one lock, striped by property, so concurrent bookings of a property are serialised while
+ * other properties proceed in parallel.
+ * <p>
+ * Only writes on this instance are seen as they happen; the exclusion constraint
+ * {@value #EXCLUSION_CONSTRAINT} enforces the same rule in the database, across instances,
+ * for pending and confirmed bookings.
+ * So a conflict with a committed slot is only a hint: the property's slots are reloaded to
+ * confirm it, as the slot may have been freed elsewhere, and all slots are reloaded every
+ * {@code app.booking-slots.resync-interval}. Reservations not committed yet are kept apart
+ * so that reloading does not lose them.
+ * <p>
+ * The free visiting slots of a property and day are cached, and every change to the slots
+ * drops the days it touches under the same lock, so the cache is never stale.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingSlotIndex {
+
+    // Also spelled out in db/migration/afterMigrate.sql, which adds the exclusion constraint
+    public static final Duration SLOT = Duration.ofMinutes(60);
+
+    public static final String EXCLUSION_CONSTRAINT = "bookings_no_overlapping_slots";
+
+    // Visits start every half hour from the first to the last start of the day
+    public static final Duration VISIT_INTERVAL = Duration.ofMinutes(30);
+    public static final LocalTime FIRST_VISIT = LocalTime.of(9, 0);
+    public static final LocalTime LAST_VISIT = LocalTime.of(18, 30);
+
+    private static final int LOCK_STRIPES = 64;
+    private static final int FREE_SLOT_CACHE_SIZE = 50_000;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, NavigableMap<LocalDateTime, Long>> slotsByProperty = new ConcurrentHashMap<>();
+    // Reserved here but not committed yet, so not in the database; also in slotsByProperty
+    private final Map<Long, NavigableMap<LocalDateTime, Long>> pendingByProperty = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = newLocks();
+    private final Cache<PropertyDay, List<LocalDateTime>> freeSlotCache = Caffeine.newBuilder()
+            .maximumSize(FREE_SLOT_CACHE_SIZE)
+            .build();
+
+    // Properties whose slots changed while all slots were being reloaded, so the snapshot may be older
+    private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final Object loadLock = new Object();
+    private volatile boolean loading;
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param bookingId Booking whose own slot does not count, or null
+     * @return Whether a slot starting at {@code start} overlaps no slot of another booking
+     */
+    public boolean isAvailable(Long propertyId, LocalDateTime start, Long bookingId) {
+        ReentrantLock lock = lockFor(propertyId);
+        lock.lock();
+        try {
+            return isFreeConfirmed(propertyId, start, bookingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserve the slot starting at {@code start} for the booking if it is available. A
+     * booking being rescheduled keeps its old slot until it is released. The reservation is
+     * pending until {@link #confirm} or {@link #release}.
+     *
+     * @return Whether the slot was reserved
+     */
+    public boolean tryReserve(Long propertyId, LocalDateTime start, Long bookingId) {
+        ReentrantLock lock = lockFor(propertyId);
+        lock.lock();
+        try {
+            if (!isFreeConfirmed(propertyId, start, bookingId)) {
+                return false;
+            }
+            slotsByProperty.computeIfAbsent(propertyId, id -> new TreeMap<>()).put(start, bookingId);
+            pendingByProperty.computeIfAbsent(propertyId, id -> new TreeMap<>()).put(start, bookingId);
+            invalidateFreeSlots(propertyId, start);
+            changed(propertyId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The reservation has been committed, so it is in the database from now on.
+     */
+    public void confirm(Long propertyId, LocalDateTime start, Long bookingId) {
+        ReentrantLock lock = lockFor(propertyId);
+        lock.lock();
+        try {
+            removePending(propertyId, start, bookingId);
+            changed(propertyId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Long propertyId, LocalDateTime start, Long bookingId) {
+        ReentrantLock lock = lockFor(propertyId);
+        lock.lock();
+        try {
+            removePending(propertyId, start, bookingId);
+            NavigableMap<LocalDateTime, Long> slots = slotsByProperty.get(propertyId);
+            if (slots != null && slots.remove(start, bookingId)) {
+                invalidateFreeSlots(propertyId, start);
+                if (slots.isEmpty()) {
+                    slotsByProperty.remove(propertyId);
+                }
+            }
+            changed(propertyId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Starts of the visits that could still be booked on the day, in order
+     */
+    public List<LocalDateTime> freeSlots(Long propertyId, LocalDate day) {
+        PropertyDay key = new PropertyDay(propertyId, day);
+        ReentrantLock lock = lockFor(propertyId);
+        lock.lock();
+        try {
+            // Computed under the lock, so a reservation cannot slip in between computing and caching
+            List<LocalDateTime> free = freeSlotCache.getIfPresent(key);
+            if (free == null) {
+                NavigableMap<LocalDateTime, Long> slots = slotsByProperty.get(propertyId);
+                free = freeSlots(day, slots == null ? List.of() : slots.subMap(
+                        day.atTime(FIRST_VISIT).minus(SLOT), false, day.atTime(LAST_VISIT).plus(SLOT), false).keySet());
+                freeSlotCache.put(key, free);
+            }
+            return free;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Free visiting slots of a day in one pass over the booked slots: a visit is free when
+     * the closest booked slot starting at or before it has ended by then, and the closest
+     * one starting after it starts no earlier than a slot later. Booked slots never overlap,
+     * so the closest ones on either side are the only ones that can conflict.
+     *
+     * @param booked Starts of the booked slots around the day, in order
+     */
+    public static List<LocalDateTime> freeSlots(LocalDate day, Iterable<LocalDateTime> booked) {
+        List<LocalDateTime> free = new ArrayList<>();
+        Iterator<LocalDateTime> bookedSlots = booked.iterator();
+        LocalDateTime previous = null;
+        LocalDateTime next = bookedSlots.hasNext() ? bookedSlots.next() : null;
+
+        LocalDateTime last = day.atTime(LAST_VISIT);
+        for (LocalDateTime visit = day.atTime(FIRST_VISIT); !visit.isAfter(last); visit = visit.plus(VISIT_INTERVAL)) {
+            while (next != null && !next.isAfter(visit)) {
+                previous = next;
+                next = bookedSlots.hasNext() ? bookedSlots.next() : null;
+            }
+            boolean clearBefore = previous == null || !previous.plus(SLOT).isAfter(visit);
+            boolean clearAfter = next == null || !visit.plus(SLOT).isAfter(next);
+            if (clearBefore && clearAfter) {
+                free.add(visit);
+            }
+        }
+        return List.copyOf(free);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        int loaded = load();
+        ready = true;
+        log.info("Booking slot index ready with {} slots of {} properties in {} ms",
+                loaded, slotsByProperty.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Pick up slots taken or freed through other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.booking-slots.resync-interval:PT5M}",
+            initialDelayString = "${app.booking-slots.resync-interval:PT5M}")
+    public void resync() {
+        if (ready) {
+            load();
+        }
+    }
+
+    /**
+     * Drop slots that are over; nothing can be booked into the past anyway.
+     */
+    @Scheduled(fixedDelayString = "${app.booking-slots.prune-interval:PT1H}",
+            initialDelayString = "${app.booking-slots.prune-interval:PT1H}")
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(SLOT);
+        for (Long propertyId : slotsByProperty.keySet()) {
+            ReentrantLock lock = lockFor(propertyId);
+            lock.lock();
+            try {
+                NavigableMap<LocalDateTime, Long> slots = slotsByProperty.get(propertyId);
+                if (slots != null) {
+                    slots.headMap(cutoff).clear();
+                    if (slots.isEmpty()) {
+                        slotsByProperty.remove(propertyId);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replace the slots of every property with those in the database. Slots of a property
+     * that changed here after the snapshot was read are reloaded on their own instead, as
+     * the snapshot could bring back a slot released since.
+     *
+     * @return Number of slots loaded
+     */
+    private int load() {
+        synchronized (loadLock) {
+            changedWhileLoading.clear();
+            loading = true;
+            List<Object[]> rows;
+            try {
+                rows = bookingRepository.findSlotsFrom(BookingStatus.FREE, LocalDateTime.now().minus(SLOT));
+                Map<Long, NavigableMap<LocalDateTime, Long>> snapshot = new HashMap<>();
+                for (Object[] row : rows) {
+                    snapshot.computeIfAbsent((Long) row[1], id -> new TreeMap<>()).put((LocalDateTime) row[2], (Long) row[0]);
+                }
+
+                Set<Long> propertyIds = new HashSet<>(snapshot.keySet());
+                propertyIds.addAll(slotsByProperty.keySet());
+                for (Long propertyId : propertyIds) {
+                    ReentrantLock lock = lockFor(propertyId);
+                    lock.lock();
+                    try {
+                        if (!changedWhileLoading.contains(propertyId)) {
+                            replaceSlots(propertyId, snapshot.getOrDefault(propertyId, new TreeMap<>()));
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            } finally {
+                loading = false;
+            }
+
+            for (Long propertyId : changedWhileLoading) {
+                ReentrantLock lock = lockFor(propertyId);
+                lock.lock();
+                try {
+                    reloadSlots(propertyId);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            changedWhileLoading.clear();
+            return rows.size();
+        }
+    }
+
+    /**
+     * Whether the slot is free, confirming a conflict with a committed slot against the
+     * database. Called under the property's lock.
+     */
+    private boolean isFreeConfirmed(Long propertyId, LocalDateTime start, Long bookingId) {
+        if (isFree(slotsByProperty.get(propertyId), start, bookingId)) {
+            return true;
+        }
+        // A conflict with a reservation in progress here is certain
+        if (!isFree(pendingByProperty.get(propertyId), start, bookingId)) {
+            return false;
+        }
+        reloadSlots(propertyId);
+        return isFree(slotsByProperty.get(propertyId), start, bookingId);
+    }
+
+    /**
+     * Reload the slots of one property. Called under its lock, so nothing here changes them
+     * between the query and replacing them.
+     */
+    private void reloadSlots(Long propertyId) {
+        NavigableMap<LocalDateTime, Long> slots = new TreeMap<>();
+        for (Object[] row : bookingRepository.findSlotsOfPropertyFrom(propertyId, BookingStatus.FREE,
+                LocalDateTime.now().minus(SLOT))) {
+            slots.put((LocalDateTime) row[1], (Long) row[0]);
+        }
+        replaceSlots(propertyId, slots);
+        // Newer than a snapshot of all slots being read at the same time
+        changed(propertyId);
+    }
+
+    /**
+     * Replace the committed slots of a property, keeping its pending reservations, and drop
+     * the cached free slots of the days where anything changed. Called under its lock.
+     */
+    private void replaceSlots(Long propertyId, NavigableMap<LocalDateTime, Long> committed) {
+        NavigableMap<LocalDateTime, Long> pending = pendingByProperty.get(propertyId);
+        if (pending != null) {
+            committed.putAll(pending);
+        }
+        NavigableMap<LocalDateTime, Long> previous = slotsByProperty.getOrDefault(propertyId, Collections.emptyNavigableMap());
+        for (Map.Entry<LocalDateTime, Long> slot : previous.entrySet()) {
+            if (!slot.getValue().equals(committed.get(slot.getKey()))) {
+                invalidateFreeSlots(propertyId, slot.getKey());
+            }
+        }
+        for (Map.Entry<LocalDateTime, Long> slot : committed.entrySet()) {
+            if (!slot.getValue().equals(previous.get(slot.getKey()))) {
+                invalidateFreeSlots(propertyId, slot.getKey());
+            }
+        }
+        if (committed.isEmpty()) {
+            slotsByProperty.remove(propertyId);
+        } else {
+            slotsByProperty.put(propertyId, committed);
+        }
+    }
+
+    private void removePending(Long propertyId, LocalDateTime start, Long bookingId) {
+        NavigableMap<LocalDateTime, Long> pending = pendingByProperty.get(propertyId);
+        if (pending != null && pending.remove(start, bookingId) && pending.isEmpty()) {
+            pendingByProperty.remove(propertyId);
+        }
+    }
+
+    private void changed(Long propertyId) {
+        if (loading) {
+            changedWhileLoading.add(propertyId);
+        }
+    }
+
+    private static boolean isFree(NavigableMap<LocalDateTime, Long> slots, LocalDateTime start, Long bookingId) {
+        if (slots == null) {
+            return true;
+        }
+        // Slots never overlap each other, so this range holds at most two of them besides the booking's own
+        for (Long other : slots.subMap(start.minus(SLOT), false, start.plus(SLOT), false).values()) {
+            if (!other.equals(bookingId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A slot starting at {@code start} blocks visits less than a slot before or after it.
+     */
+    private void invalidateFreeSlots(Long propertyId, LocalDateTime start) {
+        LocalDate first = start.minus(SLOT).toLocalDate();
+        LocalDate last = start.plus(SLOT).toLocalDate();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            freeSlotCache.invalidate(new PropertyDay(propertyId, day));
+        }
+    }
+
+    private ReentrantLock lockFor(Long propertyId) {
+        return locks[Math.floorMod(propertyId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    @Value
+    private static class PropertyDay {
+        Long propertyId;
+        LocalDate day;
+    }
+}
@@ -0,0 +1,68 @@
+package com.next.nest.index;
+
+import lombok.Value;
+
+/**
+ * Latitude/longitude rectangle enclosing a circle on the earth's surface, used to prefilter
+ * candidates before the exact distance check.
+ * <p>
+ * When the circle crosses the antimeridian {@code minLongitude} is greater than
+ * {@code maxLongitude} and the box wraps around.
+ */
+@Value
+public class BoundingBox {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    double minLatitude;
+    double maxLatitude;
+    double minLongitude;
+    double maxLongitude;
+
+    public static BoundingBox around(double latitude, double longitude, double radiusKm) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double minLatitude = latitude - Math.toDegrees(angularRadius);
+        double maxLatitude = latitude + Math.toDegrees(angularRadius);
+
+        // The circle contains a pole, every longitude is in range
+        if (minLatitude <= -90 || maxLatitude >= 90 || angularRadius >= Math.PI / 2) {
+            return new BoundingBox(Math.max(minLatitude, -90), Math.min(maxLatitude, 90), -180, 180);
+        }
+
+        double deltaLongitude = Math.toDegrees(Math.asin(Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude))));
+        double minLongitude = longitude - deltaLongitude;
+        double maxLongitude = longitude + deltaLongitude;
+        if (minLongitude < -180) {
+            minLongitude += 360;
+        }
+        if (maxLongitude > 180) {
+            maxLongitude -= 360;
+        }
+        return new BoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+    }
+
+    public boolean wrapsAntimeridian() {
+        return minLongitude > maxLongitude;
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLatitude || latitude > maxLatitude) {
+            return false;
+        }
+        return wrapsAntimeridian()
+                ? longitude >= minLongitude || longitude <= maxLongitude
+                : longitude >= minLongitude && longitude <= maxLongitude;
+    }
+
+    /**
+     * Great-circle distance between two points using the haversine formula.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,135 @@
+package com.next.nest.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dictionary-encoded amenities of searchable listings.
+ * <p>
+ * Every listing stores its amenities as a bitmask from an {@link AmenityEncoder}, so
+ * matching a listing against a set of requested amenities is a bitwise AND and a
+ * population count per word.
+ */
+@Component
+@Slf4j
+public class PropertyAmenityIndex implements PropertyIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AmenityEncoder encoder = new AmenityEncoder();
+    private final Map<Long, long[]> masks = new HashMap<>();
+
+    private volatile boolean ready;
+
+    @Override
+    public void index(PropertyDocument document) {
+        lock.writeLock().lock();
+        try {
+            masks.remove(document.getId());
+            if (document.isSearchable() && !document.getAmenities().isEmpty()) {
+                masks.put(document.getId(), encoder.encode(document.getAmenities()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+        log.info("Property amenity index ready with {} listings and {} amenities", masks.size(), encoder.size());
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Find the allowed listings having at least {@code minMatches} of the requested amenities.
+     *
+     * @param amenities The requested amenities
+     * @param minMatches Minimum number of requested amenities a listing must have
+     * @param allowed Listing ids that may be returned (the result of the filter map)
+     * @param pageable The page to return
+     * @return Listing ids ordered by descending number of matched amenities, newest first on ties
+     */
+    public Page<Long> findMatching(Collection<String> amenities, int minMatches, RoaringBitmap allowed, Pageable pageable) {
+        List<Long> ids = new ArrayList<>();
+        List<Integer> matchCounts = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            long[] query = new long[encoder.wordCount()];
+            int known = 0;
+            for (String amenity : amenities) {
+                Integer bit = encoder.bitOf(amenity);
+                if (bit != null && (query[bit >>> 6] & (1L << bit)) == 0) {
+                    query[bit >>> 6] |= 1L << bit;
+                    known++;
+                }
+            }
+            // Amenities no listing has can never be matched
+            if (known < minMatches) {
+                return new PageImpl<>(List.of(), pageable, 0);
+            }
+
+            // Walk from the highest id down so ties come out newest first
+            IntIterator positions = allowed.getReverseIntIterator();
+            while (positions.hasNext()) {
+                long id = Integer.toUnsignedLong(positions.next());
+                long[] mask = masks.get(id);
+                if (mask == null) {
+                    continue;
+                }
+                int matches = 0;
+                for (int word = 0; word < Math.min(mask.length, query.length); word++) {
+                    matches += Long.bitCount(mask[word] & query[word]);
+                }
+                if (matches >= minMatches) {
+                    ids.add(id);
+                    matchCounts.add(matches);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Counts are bounded by the number of requested amenities, so a counting sort keeps the tie order
+        int maxMatches = matchCounts.stream().mapToInt(Integer::intValue).max().orElse(0);
+        List<List<Long>> byMatches = new ArrayList<>(maxMatches + 1);
+        for (int i = 0; i <= maxMatches; i++) {
+            byMatches.add(new ArrayList<>());
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            byMatches.get(matchCounts.get(i)).add(ids.get(i));
+        }
+
+        List<Long> content = new ArrayList<>(pageable.getPageSize());
+        long skip = pageable.getOffset();
+        for (int matches = maxMatches; matches >= minMatches && content.size() < pageable.getPageSize(); matches--) {
+            for (Long id : byMatches.get(matches)) {
+                if (skip > 0) {
+                    skip--;
+                } else if (content.size() < pageable.getPageSize()) {
+                    content.add(id);
+                }
+            }
+        }
+
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+}
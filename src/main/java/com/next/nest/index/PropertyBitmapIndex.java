@@ -0,0 +1,403 @@
+package com.next.nest.index;
+
+import com.next.nest.dto.PropertyFacetsDTO;
+import com.next.nest.entity.enums.FurnishingStatus;
+import com.next.nest.entity.enums.PropertyType;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Compressed bitmap index over the searchable listings (active and in ACTIVE status).
+ * <p>
+ * Every listing is addressed by its primary key, so each attribute value maps to a
+ * {@link RoaringBitmap} of property ids and a filter query is an intersection of bitmaps.
+ * Rent is bucketed; buckets that fall entirely inside the requested range are taken as a
+ * whole, the (at most two) boundary buckets are refined against the exact rent.
+ * <p>
+ * Results are paged newest first, by {@code (createdAt, id) DESC} like the repository
+ * queries. Id order alone is not creation order: ids come from pooled sequences, and each
+ * application instance hands out its own block of them. The listings are therefore also
+ * kept in a set ordered by creation, and a page is cut from whichever is cheaper to walk,
+ * that set filtered by the result bitmap or the result set sorted on its own.
+ * <p>
+ * Facet counts for a result set are the cardinalities of its intersection with each
+ * value's bitmap, so they cost no extra pass over the listings.
+ */
+@Component
+@Slf4j
+public class PropertyBitmapIndex implements PropertyIndex {
+
+    static final long RENT_BUCKET_SIZE = 5_000L;
+
+    // Sorting a result set is cheaper than walking the whole recency order past its
+    // non-matching listings once it holds less than this share of all listings
+    private static final int SORT_RATIO = 8;
+
+    private static final Comparator<PropertyDocument> BY_RECENCY = Comparator
+            .comparing(PropertyDocument::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PropertyDocument::getId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, PropertyDocument> documents = new HashMap<>();
+    private final NavigableSet<PropertyDocument> byRecency = new TreeSet<>(BY_RECENCY);
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byCity = new HashMap<>();
+    private final Map<String, RoaringBitmap> byLocality = new HashMap<>();
+    private final Map<PropertyType, RoaringBitmap> byPropertyType = new EnumMap<>(PropertyType.class);
+    private final Map<Integer, RoaringBitmap> byBhkType = new HashMap<>();
+    private final Map<FurnishingStatus, RoaringBitmap> byFurnishingStatus = new EnumMap<>(FurnishingStatus.class);
+    private final Map<String, RoaringBitmap> byPreferredTenantType = new HashMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> byPropertyAge = new TreeMap<>();
+    private final NavigableMap<Long, RoaringBitmap> byRentBucket = new TreeMap<>();
+    private final Map<String, RoaringBitmap> byAmenity = new HashMap<>();
+    private final RoaringBitmap readyToMove = new RoaringBitmap();
+    private final RoaringBitmap petFriendly = new RoaringBitmap();
+    private final RoaringBitmap parkingAvailable = new RoaringBitmap();
+
+    private volatile boolean ready;
+
+    @Override
+    public void index(PropertyDocument document) {
+        lock.writeLock().lock();
+        try {
+            PropertyDocument previous = documents.remove(document.getId());
+            if (previous != null) {
+                byRecency.remove(previous);
+                clear(previous);
+            }
+            if (document.isSearchable()) {
+                documents.put(document.getId(), document);
+                byRecency.add(document);
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            all.runOptimize();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Property bitmap index ready with {} searchable listings", size());
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return all.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return A private copy of the bitmap of listing ids matching the filter
+     */
+    public RoaringBitmap filter(PropertyFilter filter) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = all.clone();
+
+            if (filter.getCity() != null) {
+                result.and(bitmapOrEmpty(byCity.get(filter.getCity())));
+            }
+            if (filter.getPropertyType() != null) {
+                result.and(bitmapOrEmpty(byPropertyType.get(filter.getPropertyType())));
+            }
+            if (filter.getBhkType() != null) {
+                result.and(bitmapOrEmpty(byBhkType.get(filter.getBhkType())));
+            }
+            if (filter.getFurnishingStatus() != null) {
+                result.and(bitmapOrEmpty(byFurnishingStatus.get(filter.getFurnishingStatus())));
+            }
+            if (filter.getPreferredTenantType() != null) {
+                result.and(bitmapOrEmpty(byPreferredTenantType.get(filter.getPreferredTenantType())));
+            }
+            applyFlag(result, readyToMove, filter.getIsReadyToMove());
+            applyFlag(result, petFriendly, filter.getIsPetFriendly());
+            applyFlag(result, parkingAvailable, filter.getParkingAvailable());
+
+            if (filter.getMaxPropertyAge() != null && !result.isEmpty()) {
+                result.and(union(byPropertyAge.headMap(filter.getMaxPropertyAge(), true)));
+            }
+            if ((filter.getMinRent() != null || filter.getMaxRent() != null) && !result.isEmpty()) {
+                result.and(rentRange(filter));
+            }
+
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Page through the listings matching the filter, newest first.
+     */
+    public Page<Long> findIds(PropertyFilter filter, Pageable pageable) {
+        return page(filter(filter), pageable);
+    }
+
+    /**
+     * Page through a bitmap of listing ids, newest first. Ids that are not indexed are
+     * counted in the total but never returned.
+     */
+    public Page<Long> page(RoaringBitmap ids, Pageable pageable) {
+        int total = ids.getCardinality();
+        List<Long> content = new ArrayList<>(pageable.getPageSize());
+        long offset = pageable.getOffset();
+
+        lock.readLock().lock();
+        try {
+            if ((long) total * SORT_RATIO < byRecency.size()) {
+                List<PropertyDocument> matches = new ArrayList<>(total);
+                ids.forEach((int id) -> {
+                    PropertyDocument document = documents.get(Integer.toUnsignedLong(id));
+                    if (document != null) {
+                        matches.add(document);
+                    }
+                });
+                matches.sort(BY_RECENCY.reversed());
+                for (long i = offset; i < matches.size() && content.size() < pageable.getPageSize(); i++) {
+                    content.add(matches.get((int) i).getId());
+                }
+            } else {
+                long skipped = 0;
+                for (PropertyDocument document : byRecency.descendingSet()) {
+                    if (content.size() == pageable.getPageSize()) {
+                        break;
+                    }
+                    if (ids.contains(toPosition(document.getId())) && skipped++ >= offset) {
+                        content.add(document.getId());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Count the listings of a result set per city, locality, property type, BHK type,
+     * furnishing status, rent range and amenity.
+     *
+     * @param matches The listing ids of the result set
+     */
+    public PropertyFacetsDTO facets(RoaringBitmap matches) {
+        lock.readLock().lock();
+        try {
+            return PropertyFacetsDTO.builder()
+                    .city(byCount(count(byCity, matches, Function.identity())))
+                    .locality(byCount(count(byLocality, matches, Function.identity())))
+                    .propertyType(count(byPropertyType, matches, PropertyType::name))
+                    .bhkType(count(new TreeMap<>(byBhkType), matches, String::valueOf))
+                    .furnishingStatus(count(byFurnishingStatus, matches, FurnishingStatus::name))
+                    .rentRange(count(byRentBucket, matches,
+                            bucket -> bucket * RENT_BUCKET_SIZE + "-" + (bucket + 1) * RENT_BUCKET_SIZE))
+                    .amenities(byCount(count(byAmenity, matches, Function.identity())))
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static RoaringBitmap bitmapOf(Collection<Long> ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long id : ids) {
+            bitmap.add(toPosition(id));
+        }
+        return bitmap;
+    }
+
+    public PropertyDocument getDocument(Long id) {
+        lock.readLock().lock();
+        try {
+            return documents.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(PropertyDocument document) {
+        int id = toPosition(document.getId());
+
+        all.add(id);
+        addTo(byCity, document.getCity(), id);
+        addTo(byLocality, document.getLocality(), id);
+        addTo(byPropertyType, document.getPropertyType(), id);
+        addTo(byBhkType, document.getBhkType(), id);
+        addTo(byFurnishingStatus, document.getFurnishingStatus(), id);
+        addTo(byPreferredTenantType, document.getPreferredTenantType(), id);
+        addTo(byPropertyAge, document.getPropertyAge(), id);
+        addTo(byRentBucket, rentBucket(document.getRentAmount()), id);
+        for (String amenity : document.getAmenities()) {
+            addTo(byAmenity, amenity, id);
+        }
+
+        if (Boolean.TRUE.equals(document.getIsReadyToMove())) {
+            readyToMove.add(id);
+        }
+        if (Boolean.TRUE.equals(document.getIsPetFriendly())) {
+            petFriendly.add(id);
+        }
+        if (Boolean.TRUE.equals(document.getParkingAvailable())) {
+            parkingAvailable.add(id);
+        }
+    }
+
+    private void clear(PropertyDocument document) {
+        int id = toPosition(document.getId());
+
+        all.remove(id);
+        removeFrom(byCity, document.getCity(), id);
+        removeFrom(byLocality, document.getLocality(), id);
+        removeFrom(byPropertyType, document.getPropertyType(), id);
+        removeFrom(byBhkType, document.getBhkType(), id);
+        removeFrom(byFurnishingStatus, document.getFurnishingStatus(), id);
+        removeFrom(byPreferredTenantType, document.getPreferredTenantType(), id);
+        removeFrom(byPropertyAge, document.getPropertyAge(), id);
+        removeFrom(byRentBucket, rentBucket(document.getRentAmount()), id);
+        for (String amenity : document.getAmenities()) {
+            removeFrom(byAmenity, amenity, id);
+        }
+        readyToMove.remove(id);
+        petFriendly.remove(id);
+        parkingAvailable.remove(id);
+    }
+
+    private RoaringBitmap rentRange(PropertyFilter filter) {
+        Long fromBucket = filter.getMinRent() == null ? null : rentBucket(filter.getMinRent());
+        Long toBucket = filter.getMaxRent() == null ? null : rentBucket(filter.getMaxRent());
+
+        NavigableMap<Long, RoaringBitmap> buckets = byRentBucket;
+        if (fromBucket != null) {
+            buckets = buckets.tailMap(fromBucket, true);
+        }
+        if (toBucket != null) {
+            buckets = buckets.headMap(toBucket, true);
+        }
+
+        RoaringBitmap result = new RoaringBitmap();
+        for (Map.Entry<Long, RoaringBitmap> bucket : buckets.entrySet()) {
+            boolean boundary = bucket.getKey().equals(fromBucket) || bucket.getKey().equals(toBucket);
+            if (!boundary) {
+                result.or(bucket.getValue());
+                continue;
+            }
+            IntIterator ids = bucket.getValue().getIntIterator();
+            while (ids.hasNext()) {
+                int id = ids.next();
+                PropertyDocument document = documents.get(Integer.toUnsignedLong(id));
+                if (document != null && filter.matchesRent(document.getRentAmount())) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void applyFlag(RoaringBitmap result, RoaringBitmap flagged, Boolean wanted) {
+        if (wanted == null) {
+            return;
+        }
+        if (wanted) {
+            result.and(flagged);
+        } else {
+            result.andNot(flagged);
+        }
+    }
+
+    /**
+     * @return The non-zero counts in the iteration order of the bitmaps
+     */
+    private static <K> Map<String, Integer> count(Map<K, RoaringBitmap> bitmaps, RoaringBitmap matches,
+                                                  Function<K, String> label) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<K, RoaringBitmap> entry : bitmaps.entrySet()) {
+            int count = RoaringBitmap.andCardinality(entry.getValue(), matches);
+            if (count > 0) {
+                counts.put(label.apply(entry.getKey()), count);
+            }
+        }
+        return counts;
+    }
+
+    private static Map<String, Integer> byCount(Map<String, Integer> counts) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private static RoaringBitmap union(Map<?, RoaringBitmap> bitmaps) {
+        return RoaringBitmap.or(bitmaps.values().iterator());
+    }
+
+    private static RoaringBitmap bitmapOrEmpty(RoaringBitmap bitmap) {
+        return bitmap == null ? new RoaringBitmap() : bitmap;
+    }
+
+    private static <K> void addTo(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        if (key != null) {
+            bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        if (key == null) {
+            return;
+        }
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static Long rentBucket(BigDecimal rentAmount) {
+        return rentAmount == null ? null : rentAmount.longValue() / RENT_BUCKET_SIZE;
+    }
+
+    static int toPosition(Long id) {
+        return Math.toIntExact(id);
+    }
+}
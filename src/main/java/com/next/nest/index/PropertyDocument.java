@@ -0,0 +1,81 @@
+package com.next.nest.index;
+
+import com.next.nest.entity.Property;
+import com.next.nest.entity.enums.FurnishingStatus;
+import com.next.nest.entity.enums.ListingStatus;
+import com.next.nest.entity.enums.PropertyType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Immutable, detached snapshot of the {@link Property} attributes the in-memory
+ * indexes care about. Indexes never hold on to managed entities.
+ */
+@Value
+@Builder
+public class PropertyDocument {
+
+    Long id;
+    Long ownerId;
+    String title;
+    String description;
+    String city;
+    String locality;
+    String projectName;
+    PropertyType propertyType;
+    Integer bhkType;
+    BigDecimal rentAmount;
+    Double squareFeet;
+    Double latitude;
+    Double longitude;
+    FurnishingStatus furnishingStatus;
+    Integer propertyAge;
+    Boolean parkingAvailable;
+    String preferredTenantType;
+    Boolean isReadyToMove;
+    Boolean isPetFriendly;
+    Set<String> amenities;
+    ListingStatus status;
+    Boolean isActive;
+    LocalDateTime createdAt;
+
+    public static PropertyDocument from(Property property) {
+        return PropertyDocument.builder()
+                .id(property.getId())
+                .ownerId(property.getOwner().getId())
+                .title(property.getTitle())
+                .description(property.getDescription())
+                .city(property.getCity())
+                .locality(property.getLocality())
+                .projectName(property.getProjectName())
+                .propertyType(property.getPropertyType())
+                .bhkType(property.getBhkType())
+                .rentAmount(property.getRentAmount())
+                .squareFeet(property.getSquareFeet())
+                .latitude(property.getLatitude())
+                .longitude(property.getLongitude())
+                .furnishingStatus(property.getFurnishingStatus())
+                .propertyAge(property.getPropertyAge())
+                .parkingAvailable(property.getParkingAvailable())
+                .preferredTenantType(property.getPreferredTenantType())
+                .isReadyToMove(property.getIsReadyToMove())
+                .isPetFriendly(property.getIsPetFriendly())
+                .amenities(property.getAmenities() == null ? Set.of() : Set.copyOf(property.getAmenities()))
+                .status(property.getStatus())
+                .isActive(property.getIsActive())
+                .createdAt(property.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Whether the listing is visible to public search, mirroring the
+     * {@code is_active = true AND status = 'ACTIVE'} predicate used by the repository.
+     */
+    public boolean isSearchable() {
+        return Boolean.TRUE.equals(isActive) && status == ListingStatus.ACTIVE;
+    }
+}
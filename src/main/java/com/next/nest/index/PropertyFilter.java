@@ -0,0 +1,151 @@
+package com.next.nest.index;
+
+import com.next.nest.entity.enums.FurnishingStatus;
+import com.next.nest.entity.enums.PropertyType;
+import com.next.nest.exception.BadRequestException;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Typed form of the {@code filters} map accepted by the property search methods.
+ * Every attribute is optional; a {@code null} attribute does not constrain the result.
+ */
+@Value
+@Builder(toBuilder = true)
+public class PropertyFilter {
+
+    public static final PropertyFilter NONE = PropertyFilter.builder().build();
+
+    String city;
+    PropertyType propertyType;
+    Integer bhkType;
+    BigDecimal minRent;
+    BigDecimal maxRent;
+    FurnishingStatus furnishingStatus;
+    Boolean isReadyToMove;
+    Boolean isPetFriendly;
+    Boolean parkingAvailable;
+    Integer maxPropertyAge;
+    String preferredTenantType;
+
+    /**
+     * Build a filter from the loosely typed map used by the service layer. Values may
+     * be given either in their typed form or as strings (as they arrive from request parameters).
+     */
+    public static PropertyFilter fromMap(Map<String, Object> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return NONE;
+        }
+
+        return PropertyFilter.builder()
+                .city(asString(filters.get("city")))
+                .propertyType(asEnum(PropertyType.class, filters.get("propertyType")))
+                .bhkType(asInteger(filters.get("bhkType")))
+                .minRent(asBigDecimal(filters.get("minRent")))
+                .maxRent(asBigDecimal(filters.get("maxRent")))
+                .furnishingStatus(asEnum(FurnishingStatus.class, filters.get("furnishingStatus")))
+                .isReadyToMove(asBoolean(filters.get("isReadyToMove")))
+                .isPetFriendly(asBoolean(filters.get("isPetFriendly")))
+                .parkingAvailable(asBoolean(filters.get("parkingAvailable")))
+                .maxPropertyAge(asInteger(filters.get("propertyAge")))
+                .preferredTenantType(asString(filters.get("preferredTenantType")))
+                .build();
+    }
+
+    /**
+     * Evaluate the filter against a single listing. Used to refine index candidates
+     * and as the reference implementation for the bitmap index.
+     */
+    public boolean matches(PropertyDocument document) {
+        if (city != null && !city.equals(document.getCity())) {
+            return false;
+        }
+        if (propertyType != null && propertyType != document.getPropertyType()) {
+            return false;
+        }
+        if (bhkType != null && !bhkType.equals(document.getBhkType())) {
+            return false;
+        }
+        if (!matchesRent(document.getRentAmount())) {
+            return false;
+        }
+        if (furnishingStatus != null && furnishingStatus != document.getFurnishingStatus()) {
+            return false;
+        }
+        if (isReadyToMove != null && !isReadyToMove.equals(document.getIsReadyToMove())) {
+            return false;
+        }
+        if (isPetFriendly != null && !isPetFriendly.equals(document.getIsPetFriendly())) {
+            return false;
+        }
+        if (parkingAvailable != null && !parkingAvailable.equals(document.getParkingAvailable())) {
+            return false;
+        }
+        if (maxPropertyAge != null
+                && (document.getPropertyAge() == null || document.getPropertyAge() > maxPropertyAge)) {
+            return false;
+        }
+        return preferredTenantType == null || preferredTenantType.equals(document.getPreferredTenantType());
+    }
+
+    public boolean matchesRent(BigDecimal rentAmount) {
+        if (minRent == null && maxRent == null) {
+            return true;
+        }
+        if (rentAmount == null) {
+            return false;
+        }
+        return (minRent == null || rentAmount.compareTo(minRent) >= 0)
+                && (maxRent == null || rentAmount.compareTo(maxRent) <= 0);
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static Integer asInteger(Object value) {
+        if (value == null || value instanceof Integer) {
+            return (Integer) value;
+        }
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return Integer.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid numeric filter value: " + value);
+        }
+    }
+
+    private static BigDecimal asBigDecimal(Object value) {
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid amount filter value: " + value);
+        }
+    }
+
+    private static Boolean asBoolean(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return Boolean.valueOf(value.toString().trim());
+    }
+
+    private static <E extends Enum<E>> E asEnum(Class<E> type, Object value) {
+        if (value == null || type.isInstance(value)) {
+            return type.cast(value);
+        }
+        try {
+            return Enum.valueOf(type, value.toString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + type.getSimpleName() + " filter value: " + value);
+        }
+    }
+}
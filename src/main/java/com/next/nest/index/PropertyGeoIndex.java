@@ -0,0 +1,177 @@
+package com.next.nest.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Grid index over the coordinates of searchable listings.
+ * <p>
+ * The earth is split into cells of the same size as a 5-character geohash (about 4.9 km
+ * square at the equator) and every cell holds a {@link RoaringBitmap} of listing ids. Cells
+ * are keyed row by row, so the cells of one latitude row inside a bounding box form a
+ * single key range. A radius query collects the cells covering the bounding box of the
+ * circle, intersects them with the allowed ids and refines the survivors with the exact
+ * great-circle distance.
+ */
+@Component
+@Slf4j
+public class PropertyGeoIndex implements PropertyIndex {
+
+    private static final int LATITUDE_CELLS = 1 << 12;
+    private static final int LONGITUDE_CELLS = 1 << 13;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<Long, RoaringBitmap> cells = new TreeMap<>();
+    private final Map<Long, Location> locations = new HashMap<>();
+
+    private volatile boolean ready;
+
+    @Override
+    public void index(PropertyDocument document) {
+        lock.writeLock().lock();
+        try {
+            Location previous = locations.remove(document.getId());
+            if (previous != null) {
+                RoaringBitmap cell = cells.get(previous.cell);
+                cell.remove(PropertyBitmapIndex.toPosition(document.getId()));
+                if (cell.isEmpty()) {
+                    cells.remove(previous.cell);
+                }
+            }
+
+            if (document.isSearchable() && isValid(document.getLatitude(), document.getLongitude())) {
+                Location location = new Location(document.getLatitude(), document.getLongitude());
+                locations.put(document.getId(), location);
+                cells.computeIfAbsent(location.cell, key -> new RoaringBitmap())
+                        .add(PropertyBitmapIndex.toPosition(document.getId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+        log.info("Property geo index ready with {} listings in {} cells", locations.size(), cells.size());
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Find the allowed listings within a radius of a point.
+     *
+     * @param latitude Latitude of the centre in degrees
+     * @param longitude Longitude of the centre in degrees
+     * @param radiusKm Radius in kilometres
+     * @param allowed Listing ids that may be returned (the result of the filter map)
+     * @param pageable The page to return
+     * @return Listing ids ordered by ascending distance, newest first on ties
+     */
+    public Page<Long> findWithin(double latitude, double longitude, double radiusKm,
+                                 RoaringBitmap allowed, Pageable pageable) {
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+        List<Hit> hits = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = new RoaringBitmap();
+            int minColumn = column(box.getMinLongitude());
+            int maxColumn = column(box.getMaxLongitude());
+            for (int row = row(box.getMinLatitude()); row <= row(box.getMaxLatitude()); row++) {
+                if (box.wrapsAntimeridian()) {
+                    collect(candidates, row, minColumn, LONGITUDE_CELLS - 1);
+                    collect(candidates, row, 0, maxColumn);
+                } else {
+                    collect(candidates, row, minColumn, maxColumn);
+                }
+            }
+            candidates.and(allowed);
+
+            IntIterator positions = candidates.getIntIterator();
+            while (positions.hasNext()) {
+                long id = Integer.toUnsignedLong(positions.next());
+                Location location = locations.get(id);
+                double distance = BoundingBox.distanceKm(latitude, longitude, location.latitude, location.longitude);
+                if (distance <= radiusKm) {
+                    hits.add(new Hit(id, distance));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> content = hits.stream()
+                .sorted(Comparator.comparingDouble((Hit hit) -> hit.distance)
+                        .thenComparing(hit -> hit.id, Comparator.reverseOrder()))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(hit -> hit.id)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+
+    private void collect(RoaringBitmap candidates, int row, int fromColumn, int toColumn) {
+        long rowStart = (long) row * LONGITUDE_CELLS;
+        for (RoaringBitmap cell : cells.subMap(rowStart + fromColumn, true, rowStart + toColumn, true).values()) {
+            candidates.or(cell);
+        }
+    }
+
+    private static boolean isValid(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+                && latitude >= -90 && latitude <= 90
+                && longitude >= -180 && longitude <= 180;
+    }
+
+    private static int row(double latitude) {
+        return Math.min((int) ((latitude + 90) / 180 * LATITUDE_CELLS), LATITUDE_CELLS - 1);
+    }
+
+    private static int column(double longitude) {
+        return Math.min((int) ((longitude + 180) / 360 * LONGITUDE_CELLS), LONGITUDE_CELLS - 1);
+    }
+
+    private static final class Location {
+        private final double latitude;
+        private final double longitude;
+        private final long cell;
+
+        private Location(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = (long) row(latitude) * LONGITUDE_CELLS + column(longitude);
+        }
+    }
+
+    private static final class Hit {
+        private final long id;
+        private final double distance;
+
+        private Hit(long id, double distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.next.nest.index;
+
+/**
+ * An in-memory structure derived from the {@code properties} table.
+ * Implementations are fed by {@link PropertyIndexSynchronizer}, both during the
+ * initial warm-up and afterwards on every committed property write.
+ */
+public interface PropertyIndex {
+
+    /**
+     * Insert, replace or drop the given listing. Implementations decide for
+     * themselves whether the listing belongs in the index (typically only
+     * {@link PropertyDocument#isSearchable() searchable} listings do).
+     *
+     * @param document The latest committed state of the listing
+     */
+    void index(PropertyDocument document);
+
+    /**
+     * Called once the warm-up has loaded every listing from the database.
+     */
+    void markReady();
+
+    /**
+     * @return True once the index reflects the database and can answer queries
+     */
+    boolean isReady();
+}
@@ -0,0 +1,111 @@
+package com.next.nest.index;
+
+import com.next.nest.entity.Property;
+import com.next.nest.event.PropertyChangedEvent;
+import com.next.nest.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps every {@link PropertyIndex} in line with the {@code properties} table:
+ * loads all listings once the application is up, then applies each committed write.
+ * <p>
+ * A batch of the warm-up is applied after it was read, so a write committed in between
+ * would be overwritten by the older state. Listings written while warming up are
+ * therefore skipped by the warm-up: their latest state is the one from the write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyIndexSynchronizer {
+
+    private static final int WARM_UP_BATCH_SIZE = 500;
+
+    private final List<PropertyIndex> indexes;
+    private final PropertyRepository propertyRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Listings written since the warm-up started; guarded by this
+    private final Set<Long> changedDuringWarmUp = new HashSet<>();
+    private volatile boolean warmingUp;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        PropertyDocument document = event.getDocument();
+        if (!warmingUp) {
+            apply(document);
+            return;
+        }
+        synchronized (this) {
+            changedDuringWarmUp.add(document.getId());
+            apply(document);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        warmingUp = true;
+
+        int page = 0;
+        long loaded = 0;
+        boolean hasNext = true;
+
+        while (hasNext) {
+            final int currentPage = page;
+            // One short transaction per batch so the persistence context never grows unbounded
+            List<PropertyDocument> documents = transactionTemplate.execute(status -> {
+                Page<Property> batch = propertyRepository.findAll(
+                        PageRequest.of(currentPage, WARM_UP_BATCH_SIZE, Sort.by("id").ascending()));
+                return batch.stream()
+                        .map(PropertyDocument::from)
+                        .collect(Collectors.toList());
+            });
+
+            synchronized (this) {
+                for (PropertyDocument document : documents) {
+                    if (!changedDuringWarmUp.contains(document.getId())) {
+                        apply(document);
+                    }
+                }
+            }
+
+            loaded += documents.size();
+            hasNext = documents.size() == WARM_UP_BATCH_SIZE;
+            page++;
+        }
+
+        synchronized (this) {
+            warmingUp = false;
+            changedDuringWarmUp.clear();
+        }
+
+        indexes.forEach(PropertyIndex::markReady);
+        log.info("Warmed up {} property indexes with {} listings in {} ms",
+                indexes.size(), loaded, System.currentTimeMillis() - start);
+    }
+
+    private void apply(PropertyDocument document) {
+        for (PropertyIndex index : indexes) {
+            index.index(document);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.next.nest.index;
+
+import com.next.nest.dto.RentStatisticsDTO;
+import com.next.nest.entity.enums.ListingStatus;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Rent and rent per square foot distributions per city, locality and BHK type.
+ * <p>
+ * Both active and rented listings contribute, as both say what the market pays. Every
+ * segment keeps a {@link QuantileSketch} per measure, and the contribution of each listing
+ * is remembered so an update or delisting takes exactly that contribution out again. A
+ * query over a whole city or locality merges the sketches of the matching segments, so
+ * nothing is ever recomputed from the listings themselves.
+ */
+@Component
+@Slf4j
+public class PropertyRentStatisticsIndex implements PropertyIndex {
+
+    private static final double MEDIAN = 0.5;
+    private static final double P90 = 0.9;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Map<Segment, Distribution>> byCity = new HashMap<>();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    private volatile boolean ready;
+
+    @Override
+    public void index(PropertyDocument document) {
+        Contribution current = contributionOf(document);
+
+        lock.writeLock().lock();
+        try {
+            Contribution previous = current == null
+                    ? contributions.remove(document.getId())
+                    : contributions.put(document.getId(), current);
+            if (Objects.equals(previous, current)) {
+                return;
+            }
+
+            if (previous != null) {
+                Map<Segment, Distribution> segments = byCity.get(previous.getCity());
+                Distribution distribution = segments.get(previous.getSegment());
+                distribution.remove(previous);
+                if (distribution.rent.isEmpty()) {
+                    segments.remove(previous.getSegment());
+                    if (segments.isEmpty()) {
+                        byCity.remove(previous.getCity());
+                    }
+                }
+            }
+            if (current != null) {
+                byCity.computeIfAbsent(current.getCity(), city -> new HashMap<>())
+                        .computeIfAbsent(current.getSegment(), segment -> new Distribution())
+                        .add(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+        log.info("Property rent statistics index ready with {} listings in {} cities", contributions.size(), byCity.size());
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param city City, required
+     * @param locality Locality within the city, or null for the whole city
+     * @param bhkType BHK type, or null for all of them
+     * @return The merged rent distribution of the matching segments
+     */
+    public RentStatisticsDTO statistics(String city, String locality, Integer bhkType) {
+        Distribution merged = new Distribution();
+
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Segment, Distribution> entry : byCity.getOrDefault(city, Map.of()).entrySet()) {
+                Segment segment = entry.getKey();
+                if ((locality == null || locality.equals(segment.getLocality()))
+                        && (bhkType == null || bhkType.equals(segment.getBhkType()))) {
+                    merged.merge(entry.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return RentStatisticsDTO.builder()
+                .city(city)
+                .locality(locality)
+                .bhkType(bhkType)
+                .listingCount(merged.rent.getCount())
+                .meanRent(amount(merged.rent.mean()))
+                .medianRent(amount(merged.rent.quantile(MEDIAN)))
+                .p90Rent(amount(merged.rent.quantile(P90)))
+                .listingWithAreaCount(merged.rentPerSquareFoot.getCount())
+                .meanRentPerSquareFoot(amount(merged.rentPerSquareFoot.mean()))
+                .medianRentPerSquareFoot(amount(merged.rentPerSquareFoot.quantile(MEDIAN)))
+                .p90RentPerSquareFoot(amount(merged.rentPerSquareFoot.quantile(P90)))
+                .build();
+    }
+
+    private static Contribution contributionOf(PropertyDocument document) {
+        boolean counted = Boolean.TRUE.equals(document.getIsActive())
+                && (document.getStatus() == ListingStatus.ACTIVE || document.getStatus() == ListingStatus.RENTED);
+        if (!counted || document.getCity() == null || document.getRentAmount() == null
+                || document.getRentAmount().signum() <= 0) {
+            return null;
+        }
+
+        double rent = document.getRentAmount().doubleValue();
+        Double rentPerSquareFoot = document.getSquareFeet() != null && document.getSquareFeet() > 0
+                ? rent / document.getSquareFeet()
+                : null;
+        return new Contribution(document.getCity(), new Segment(document.getLocality(), document.getBhkType()),
+                rent, rentPerSquareFoot);
+    }
+
+    private static BigDecimal amount(Double value) {
+        return value == null ? null : BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Value
+    private static class Segment {
+        String locality;
+        Integer bhkType;
+    }
+
+    @Value
+    private static class Contribution {
+        String city;
+        Segment segment;
+        double rent;
+        Double rentPerSquareFoot;
+    }
+
+    private static final class Distribution {
+        private final QuantileSketch rent = new QuantileSketch();
+        private final QuantileSketch rentPerSquareFoot = new QuantileSketch();
+
+        private void add(Contribution contribution) {
+            rent.add(contribution.getRent());
+            if (contribution.getRentPerSquareFoot() != null) {
+                rentPerSquareFoot.add(contribution.getRentPerSquareFoot());
+            }
+        }
+
+        private void remove(Contribution contribution) {
+            rent.remove(contribution.getRent());
+            if (contribution.getRentPerSquareFoot() != null) {
+                rentPerSquareFoot.remove(contribution.getRentPerSquareFoot());
+            }
+        }
+
+        private void merge(Distribution other) {
+            rent.merge(other.rent);
+            rentPerSquareFoot.merge(other.rentPerSquareFoot);
+        }
+    }
+}
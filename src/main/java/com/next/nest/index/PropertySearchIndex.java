@@ -0,0 +1,312 @@
+package com.next.nest.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index over the text fields of searchable listings, ranked with BM25.
+ * <p>
+ * Fields are weighted (title counts double, project name and locality one and a half
+ * times) and folded into a single weighted term frequency per listing. Every query token
+ * must match; a token matches its exact term, terms one edit away (for tokens of four or
+ * more characters) and, for the last token of the query, any term it is a prefix of, so
+ * results keep up with search-as-you-type.
+ */
+@Component
+@Slf4j
+public class PropertySearchIndex implements PropertyIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float TITLE_WEIGHT = 2.0f;
+    private static final float PROJECT_NAME_WEIGHT = 1.5f;
+    private static final float LOCALITY_WEIGHT = 1.5f;
+    private static final float CITY_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final double PREFIX_PENALTY = 0.8;
+    private static final double TYPO_PENALTY = 0.6;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** term -> (listing id -> weighted term frequency) */
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    /** single-deletion variant -> terms producing it, used for typo tolerance */
+    private final Map<String, Set<String>> deletionVariants = new HashMap<>();
+    private final Map<Long, Map<String, Float>> documentTerms = new HashMap<>();
+    private final Map<Long, Float> documentLengths = new HashMap<>();
+    private final Map<Long, LocalDateTime> createdAt = new HashMap<>();
+    private double totalLength;
+
+    private volatile boolean ready;
+
+    @Override
+    public void index(PropertyDocument document) {
+        lock.writeLock().lock();
+        try {
+            remove(document.getId());
+            if (document.isSearchable()) {
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+        log.info("Property search index ready with {} listings and {} terms", documentTerms.size(), postings.size());
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rank the listings matching every token of the query.
+     *
+     * @param query The raw query text
+     * @param allowed Listing ids that may be returned (the result of the filter map)
+     * @param pageable The page to return
+     * @return Listing ids ordered by descending relevance, newest first on ties
+     */
+    public Page<Long> search(String query, RoaringBitmap allowed, Pageable pageable) {
+        return rank(score(query, allowed), pageable);
+    }
+
+    /**
+     * Page through scored listings by descending score, newest first on ties. Newest is by
+     * {@code (createdAt, id)}, as in {@link PropertyBitmapIndex}: ids come from pooled
+     * sequence blocks, so their order alone is not creation order.
+     */
+    public Page<Long> rank(Map<Long, Double> scores, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Comparator<Long> newestFirst = Comparator
+                    .<Long, LocalDateTime>comparing(createdAt::get, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(Comparator.<Long>naturalOrder())
+                    .reversed();
+            List<Long> ranked = scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey(newestFirst)))
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+
+            return new PageImpl<>(ranked, pageable, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The relevance score of every allowed listing matching the query
+     */
+    public Map<Long, Double> score(String query, RoaringBitmap allowed) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return Map.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documentTerms.size();
+            if (documentCount == 0) {
+                return Map.of();
+            }
+            double averageLength = totalLength / documentCount;
+
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                Map<String, Double> variants = expand(tokens.get(i), i == tokens.size() - 1);
+                Map<Long, Double> tokenScores = new HashMap<>();
+
+                for (Map.Entry<String, Double> variant : variants.entrySet()) {
+                    Map<Long, Float> postingList = postings.get(variant.getKey());
+                    double idf = idf(documentCount, postingList.size());
+
+                    for (Map.Entry<Long, Float> posting : postingList.entrySet()) {
+                        Long id = posting.getKey();
+                        if (!allowed.contains(PropertyBitmapIndex.toPosition(id))
+                                || (scores != null && !scores.containsKey(id))) {
+                            continue;
+                        }
+                        double tf = posting.getValue();
+                        double lengthNorm = 1 - B + B * documentLengths.get(id) / averageLength;
+                        double termScore = variant.getValue() * idf * (tf * (K1 + 1)) / (tf + K1 * lengthNorm);
+                        // A token scores through its best matching variant only
+                        tokenScores.merge(id, termScore, Math::max);
+                    }
+                }
+
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Long, Double> combined = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : tokenScores.entrySet()) {
+                        combined.put(entry.getKey(), scores.get(entry.getKey()) + entry.getValue());
+                    }
+                    scores = combined;
+                }
+
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The indexed terms a query token matches, with the weight of each kind of match
+     */
+    private Map<String, Double> expand(String token, boolean allowPrefix) {
+        Map<String, Double> variants = new LinkedHashMap<>();
+
+        if (postings.containsKey(token)) {
+            variants.put(token, 1.0);
+        }
+
+        if (allowPrefix) {
+            int expansions = 0;
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                variants.putIfAbsent(term, PREFIX_PENALTY);
+            }
+        }
+
+        if (token.length() >= MIN_TYPO_LENGTH) {
+            Set<String> candidates = new HashSet<>(deletionVariants.getOrDefault(token, Set.of()));
+            for (String deletion : deletions(token)) {
+                if (postings.containsKey(deletion)) {
+                    candidates.add(deletion);
+                }
+                candidates.addAll(deletionVariants.getOrDefault(deletion, Set.of()));
+            }
+            for (String candidate : candidates) {
+                if (TextAnalyzer.withinOneEdit(token, candidate)) {
+                    variants.putIfAbsent(candidate, TYPO_PENALTY);
+                }
+            }
+        }
+
+        return variants;
+    }
+
+    private void add(PropertyDocument document) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, document.getTitle(), TITLE_WEIGHT);
+        addField(frequencies, document.getProjectName(), PROJECT_NAME_WEIGHT);
+        addField(frequencies, document.getLocality(), LOCALITY_WEIGHT);
+        addField(frequencies, document.getCity(), CITY_WEIGHT);
+        addField(frequencies, document.getDescription(), DESCRIPTION_WEIGHT);
+
+        float length = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            Map<Long, Float> postingList = postings.get(entry.getKey());
+            if (postingList == null) {
+                postingList = new HashMap<>();
+                postings.put(entry.getKey(), postingList);
+                registerTerm(entry.getKey());
+            }
+            postingList.put(document.getId(), entry.getValue());
+            length += entry.getValue();
+        }
+
+        documentTerms.put(document.getId(), frequencies);
+        documentLengths.put(document.getId(), length);
+        totalLength += length;
+        if (document.getCreatedAt() != null) {
+            createdAt.put(document.getId(), document.getCreatedAt());
+        }
+    }
+
+    private void remove(Long id) {
+        Map<String, Float> frequencies = documentTerms.remove(id);
+        if (frequencies == null) {
+            return;
+        }
+
+        for (String term : frequencies.keySet()) {
+            Map<Long, Float> postingList = postings.get(term);
+            postingList.remove(id);
+            if (postingList.isEmpty()) {
+                postings.remove(term);
+                unregisterTerm(term);
+            }
+        }
+        totalLength -= documentLengths.remove(id);
+        createdAt.remove(id);
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String token : TextAnalyzer.tokenize(text)) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void registerTerm(String term) {
+        if (term.length() < MIN_TYPO_LENGTH) {
+            return;
+        }
+        for (String deletion : deletions(term)) {
+            deletionVariants.computeIfAbsent(deletion, key -> new HashSet<>()).add(term);
+        }
+    }
+
+    private void unregisterTerm(String term) {
+        if (term.length() < MIN_TYPO_LENGTH) {
+            return;
+        }
+        for (String deletion : deletions(term)) {
+            Set<String> terms = deletionVariants.get(deletion);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    deletionVariants.remove(deletion);
+                }
+            }
+        }
+    }
+
+    private static List<String> deletions(String term) {
+        List<String> deletions = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            deletions.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return deletions;
+    }
+
+    private static double idf(int documentCount, int documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+}
@@ -0,0 +1,398 @@
+package com.next.nest.index;
+
+import com.next.nest.entity.enums.FurnishingStatus;
+import com.next.nest.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed "similar listings" for every active listing.
+ * <p>
+ * A batch job turns each listing into a feature vector (log rent, BHK and log area
+ * standardised within the city, position on the unit sphere, furnishing level) plus an
+ * amenity bitmask, and finds its {@value #NEIGHBOURS} nearest neighbours among the
+ * listings of the same city. Distance is euclidean over the vector plus the Jaccard
+ * distance of the amenities.
+ * <p>
+ * Rather than comparing every pair in a city, listings are bucketed in a grid over rent
+ * and position, and each listing visits the cells around its own in rings of growing
+ * Chebyshev distance. A listing in ring {@code r + 1} differs by more than {@code r} cells
+ * in one of those features, so once the farthest of the neighbours found is closer than
+ * that the search stops, with the same result as a full scan. The search runs on the
+ * common fork/join pool, and the result replaces the previous one in a single write, so
+ * lookups are a hash map read.
+ * <p>
+ * The job runs once the application is up and then nightly. Listings created in between
+ * have no neighbours until the next run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PropertySimilarityIndex {
+
+    public static final int NEIGHBOURS = 10;
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    // Listings per fork/join leaf; each one searches its city's grid, so leaves stay small
+    private static final int LEAF_SIZE = 32;
+
+    // Features the grid is laid over (log rent and the position), and its cell size in their units
+    private static final int[] GRID_FEATURES = {0, 3, 4, 5};
+    private static final double CELL_SIZE = 0.5;
+
+    // Two listings this far apart cost as much as one standard deviation of rent
+    private static final double GEO_SCALE_KM = 5.0;
+    private static final double FURNISHING_WEIGHT = 1.0;
+    private static final double AMENITY_WEIGHT = 1.5;
+
+    private static final int FEATURES = 7;
+
+    private final PropertyRepository propertyRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Map<Long, long[]> neighbours = Map.of();
+
+    /**
+     * @param id Listing id
+     * @param limit Maximum number of listings, capped at {@value #NEIGHBOURS}
+     * @return Ids of the most similar listings as of the last run, most similar first
+     */
+    public List<Long> findSimilar(Long id, int limit) {
+        long[] similar = neighbours.get(id);
+        if (similar == null || limit <= 0) {
+            return List.of();
+        }
+        return Arrays.stream(similar)
+                .limit(Math.min(limit, NEIGHBOURS))
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.similar-properties.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Similar property computation already running, skipping");
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            List<Listing> listings = load();
+            neighbours = computeNeighbours(listings);
+            log.info("Computed similar properties for {} listings in {} ms",
+                    listings.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to compute similar properties, keeping the previous result", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<Listing> load() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        AmenityEncoder amenityEncoder = new AmenityEncoder();
+        List<Listing> listings = new ArrayList<>();
+        long lastId = 0;
+        boolean hasNext = true;
+
+        while (hasNext) {
+            final long afterId = lastId;
+            // One short transaction per batch so the persistence context never grows unbounded
+            List<PropertyDocument> documents = transactionTemplate.execute(status ->
+                    propertyRepository.findActiveStatusAfterId(afterId, LOAD_BATCH_SIZE).stream()
+                            .map(PropertyDocument::from)
+                            .collect(Collectors.toList()));
+
+            for (PropertyDocument document : documents) {
+                if (document.isSearchable() && document.getCity() != null) {
+                    listings.add(new Listing(document, amenityEncoder));
+                }
+                lastId = document.getId();
+            }
+            hasNext = documents.size() == LOAD_BATCH_SIZE;
+        }
+        return listings;
+    }
+
+    private static Map<Long, long[]> computeNeighbours(List<Listing> listings) {
+        Map<String, List<Listing>> byCity = listings.stream()
+                .collect(Collectors.groupingBy(listing -> listing.city));
+        Map<String, CityGrid> grids = new HashMap<>();
+        byCity.forEach((city, cityListings) -> {
+            standardise(cityListings);
+            grids.put(city, new CityGrid(cityListings));
+        });
+
+        Listing[] all = listings.toArray(new Listing[0]);
+        ForkJoinPool.commonPool().invoke(new NeighbourTask(all, grids, 0, all.length));
+
+        Map<Long, long[]> result = new HashMap<>(all.length * 2);
+        for (Listing listing : all) {
+            if (listing.neighbours.length > 0) {
+                result.put(listing.id, listing.neighbours);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Turn the raw features of one city into z-scores, filling missing values with the mean,
+     * and place listings without coordinates at the centre of the city.
+     */
+    private static void standardise(List<Listing> city) {
+        for (int feature : new int[] {0, 1, 2}) {
+            double sum = 0;
+            double squares = 0;
+            int count = 0;
+            for (Listing listing : city) {
+                double value = listing.features[feature];
+                if (!Double.isNaN(value)) {
+                    sum += value;
+                    squares += value * value;
+                    count++;
+                }
+            }
+            double mean = count == 0 ? 0 : sum / count;
+            double deviation = count == 0 ? 0 : Math.sqrt(Math.max(0, squares / count - mean * mean));
+            for (Listing listing : city) {
+                double value = listing.features[feature];
+                listing.features[feature] = Double.isNaN(value) || deviation == 0 ? 0 : (value - mean) / deviation;
+            }
+        }
+
+        double[] centre = new double[3];
+        int located = 0;
+        for (Listing listing : city) {
+            if (!Double.isNaN(listing.features[3])) {
+                for (int axis = 0; axis < 3; axis++) {
+                    centre[axis] += listing.features[3 + axis];
+                }
+                located++;
+            }
+        }
+        for (Listing listing : city) {
+            if (Double.isNaN(listing.features[3])) {
+                for (int axis = 0; axis < 3; axis++) {
+                    listing.features[3 + axis] = located == 0 ? 0 : centre[axis] / located;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Squared distance, which orders neighbours the same as the distance itself
+     */
+    private static double distance(Listing a, Listing b) {
+        double sum = 0;
+        for (int feature = 0; feature < FEATURES; feature++) {
+            double difference = a.features[feature] - b.features[feature];
+            sum += difference * difference;
+        }
+
+        int union = 0;
+        int intersection = 0;
+        for (int word = 0; word < Math.max(a.amenities.length, b.amenities.length); word++) {
+            long left = word < a.amenities.length ? a.amenities[word] : 0;
+            long right = word < b.amenities.length ? b.amenities[word] : 0;
+            union += Long.bitCount(left | right);
+            intersection += Long.bitCount(left & right);
+        }
+        if (union > 0) {
+            double amenityDistance = AMENITY_WEIGHT * (1 - (double) intersection / union);
+            sum += amenityDistance * amenityDistance;
+        }
+        return sum;
+    }
+
+    private static final class NeighbourTask extends RecursiveAction {
+        private final Listing[] listings;
+        private final Map<String, CityGrid> grids;
+        private final int from;
+        private final int to;
+
+        private NeighbourTask(Listing[] listings, Map<String, CityGrid> grids, int from, int to) {
+            this.listings = listings;
+            this.grids = grids;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    findNeighbours(listings[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NeighbourTask(listings, grids, from, middle),
+                    new NeighbourTask(listings, grids, middle, to));
+        }
+
+        /**
+         * Visit the cells of the city ring by ring, keeping the closest candidates in a small
+         * array sorted by distance; with this few slots an insertion is cheaper than a heap.
+         */
+        private void findNeighbours(Listing listing) {
+            CityGrid grid = grids.get(listing.city);
+            long[] ids = new long[NEIGHBOURS];
+            double[] distances = new double[NEIGHBOURS];
+            int size = 0;
+
+            for (int ring = 0; ; ring++) {
+                boolean fartherCells = false;
+                for (int cell = 0; cell < grid.cells.length; cell++) {
+                    int cellDistance = chebyshev(listing.cell, grid.cells[cell]);
+                    if (cellDistance > ring) {
+                        fartherCells = true;
+                        continue;
+                    }
+                    if (cellDistance < ring) {
+                        continue;
+                    }
+                    for (Listing candidate : grid.listings[cell]) {
+                        if (candidate == listing) {
+                            continue;
+                        }
+                        double distance = distance(listing, candidate);
+                        if (size == NEIGHBOURS && distance >= distances[NEIGHBOURS - 1]) {
+                            continue;
+                        }
+                        int slot = size < NEIGHBOURS ? size++ : NEIGHBOURS - 1;
+                        while (slot > 0 && distances[slot - 1] > distance) {
+                            ids[slot] = ids[slot - 1];
+                            distances[slot] = distances[slot - 1];
+                            slot--;
+                        }
+                        ids[slot] = candidate.id;
+                        distances[slot] = distance;
+                    }
+                }
+
+                // Listings not visited yet are more than this far away in one grid feature
+                double reach = ring * CELL_SIZE;
+                if (!fartherCells || (size == NEIGHBOURS && distances[NEIGHBOURS - 1] <= reach * reach)) {
+                    break;
+                }
+            }
+
+            listing.neighbours = Arrays.copyOf(ids, size);
+        }
+
+        private static int chebyshev(int[] a, int[] b) {
+            int distance = 0;
+            for (int axis = 0; axis < a.length; axis++) {
+                distance = Math.max(distance, Math.abs(a[axis] - b[axis]));
+            }
+            return distance;
+        }
+    }
+
+    /**
+     * The non-empty cells of a city's grid, with the listings in each.
+     */
+    private static final class CityGrid {
+        private final int[][] cells;
+        private final Listing[][] listings;
+
+        private CityGrid(List<Listing> city) {
+            Map<List<Integer>, List<Listing>> byCell = new HashMap<>();
+            for (Listing listing : city) {
+                listing.cell = new int[GRID_FEATURES.length];
+                for (int axis = 0; axis < GRID_FEATURES.length; axis++) {
+                    listing.cell[axis] = (int) Math.floor(listing.features[GRID_FEATURES[axis]] / CELL_SIZE);
+                }
+                byCell.computeIfAbsent(Arrays.stream(listing.cell).boxed().collect(Collectors.toList()),
+                        key -> new ArrayList<>()).add(listing);
+            }
+
+            cells = new int[byCell.size()][];
+            listings = new Listing[byCell.size()][];
+            int cell = 0;
+            for (List<Listing> cellListings : byCell.values()) {
+                cells[cell] = cellListings.get(0).cell;
+                listings[cell] = cellListings.toArray(new Listing[0]);
+                cell++;
+            }
+        }
+    }
+
+    private static final class Listing {
+        private final long id;
+        private final String city;
+        private final double[] features = new double[FEATURES];
+        private final long[] amenities;
+        private long[] neighbours = new long[0];
+        private int[] cell;
+
+        private Listing(PropertyDocument document, AmenityEncoder amenityEncoder) {
+            this.id = document.getId();
+            this.city = document.getCity().trim().toLowerCase(Locale.ROOT);
+
+            features[0] = document.getRentAmount() != null && document.getRentAmount().signum() > 0
+                    ? Math.log(document.getRentAmount().doubleValue()) : Double.NaN;
+            features[1] = document.getBhkType() != null ? document.getBhkType() : Double.NaN;
+            features[2] = document.getSquareFeet() != null && document.getSquareFeet() > 0
+                    ? Math.log(document.getSquareFeet()) : Double.NaN;
+
+            if (document.getLatitude() != null && document.getLongitude() != null) {
+                // Chord length on the unit sphere, scaled so GEO_SCALE_KM is one unit
+                double scale = BoundingBox.EARTH_RADIUS_KM / GEO_SCALE_KM;
+                double latitude = Math.toRadians(document.getLatitude());
+                double longitude = Math.toRadians(document.getLongitude());
+                features[3] = scale * Math.cos(latitude) * Math.cos(longitude);
+                features[4] = scale * Math.cos(latitude) * Math.sin(longitude);
+                features[5] = scale * Math.sin(latitude);
+            } else {
+                features[3] = features[4] = features[5] = Double.NaN;
+            }
+
+            features[6] = FURNISHING_WEIGHT * furnishingLevel(document.getFurnishingStatus());
+
+            this.amenities = amenityEncoder.encode(document.getAmenities());
+        }
+
+        private static double furnishingLevel(FurnishingStatus furnishingStatus) {
+            if (furnishingStatus == null) {
+                return 0.5;
+            }
+            switch (furnishingStatus) {
+                case FULLY_FURNISHED:
+                    return 1;
+                case SEMI_FURNISHED:
+                    return 0.5;
+                default:
+                    return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.next.nest.index;
+
+import com.next.nest.dto.SuggestionDTO;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Prefix trie over the city, locality and project names of searchable listings, for the
+ * search box typeahead.
+ * <p>
+ * Every name is reachable from its first word and from each later word, so "lakeside"
+ * finds "Prestige Lakeside". Suggestions are weighted by the number of listings carrying
+ * the name, and every node caches its {@value #MAX_SUGGESTIONS} heaviest suggestions, so a
+ * lookup is a walk down the prefix and nothing more. Once warmed up, a write only
+ * recomputes the caches on the paths of the names it touches; during warm-up the caches
+ * are built once at the end.
+ * <p>
+ * The index also keeps the sorted distinct cities and localities per city.
+ */
+@Component
+@Slf4j
+public class PropertyTypeaheadIndex implements PropertyIndex {
+
+    public enum SuggestionType {
+        CITY, LOCALITY, PROJECT
+    }
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node();
+    private final Map<Suggestion, Integer> weights = new HashMap<>();
+    private final Map<Long, List<Suggestion>> contributions = new HashMap<>();
+    private final NavigableSet<String> cities = new TreeSet<>();
+    private final Map<String, NavigableSet<String>> localitiesByCity = new HashMap<>();
+
+    private final Comparator<Suggestion> byWeight = Comparator
+            .comparing((Suggestion suggestion) -> weights.getOrDefault(suggestion, 0), Comparator.reverseOrder())
+            .thenComparing(Suggestion::getText);
+
+    private volatile boolean ready;
+
+    @Override
+    public void index(PropertyDocument document) {
+        List<Suggestion> current = document.isSearchable() ? suggestionsOf(document) : List.of();
+
+        lock.writeLock().lock();
+        try {
+            List<Suggestion> previous = contributions.getOrDefault(document.getId(), List.of());
+            if (previous.equals(current)) {
+                return;
+            }
+            previous.forEach(this::decrement);
+            current.forEach(this::increment);
+
+            if (current.isEmpty()) {
+                contributions.remove(document.getId());
+            } else {
+                contributions.put(document.getId(), current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            rebuild(root);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Property typeahead index ready with {} suggestions", weights.size());
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param prefix What the user has typed so far
+     * @param limit Maximum number of suggestions, capped at {@value #MAX_SUGGESTIONS}
+     * @return The most listed names matching the prefix, heaviest first
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = key(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            return node.top.stream()
+                    .limit(Math.min(limit, MAX_SUGGESTIONS))
+                    .map(suggestion -> SuggestionDTO.builder()
+                            .type(suggestion.getType())
+                            .text(suggestion.getText())
+                            .city(suggestion.getCity())
+                            .listingCount(weights.get(suggestion))
+                            .build())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> getCities() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(cities);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> getLocalities(String city) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(localitiesByCity.getOrDefault(city, new TreeSet<>()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void increment(Suggestion suggestion) {
+        if (weights.merge(suggestion, 1, Integer::sum) == 1) {
+            for (String key : keys(suggestion)) {
+                insert(key).terminals.add(suggestion);
+            }
+            addName(suggestion);
+        }
+        if (ready) {
+            keys(suggestion).forEach(this::refresh);
+        }
+    }
+
+    private void decrement(Suggestion suggestion) {
+        int weight = weights.merge(suggestion, -1, Integer::sum);
+        if (weight == 0) {
+            weights.remove(suggestion);
+            for (String key : keys(suggestion)) {
+                Node node = find(key);
+                if (node != null) {
+                    node.terminals.remove(suggestion);
+                }
+            }
+            removeName(suggestion);
+        }
+        if (ready) {
+            keys(suggestion).forEach(this::refresh);
+        }
+    }
+
+    private Node insert(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        return node;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Recompute the cached suggestions from the end of a key back up to the root, dropping
+     * nodes that no longer lead anywhere.
+     */
+    private void refresh(String key) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            if (node == null) {
+                break;
+            }
+            path.add(node);
+        }
+
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node current = path.get(depth);
+            if (depth > 0 && current.terminals.isEmpty() && current.children.isEmpty()) {
+                path.get(depth - 1).children.remove(key.charAt(depth - 1));
+                continue;
+            }
+
+            computeTop(current);
+        }
+    }
+
+    /**
+     * Recompute the cached suggestions of a whole subtree, dropping empty branches.
+     *
+     * @return Whether the node still leads to a suggestion
+     */
+    private boolean rebuild(Node node) {
+        node.children.values().removeIf(child -> !rebuild(child));
+        computeTop(node);
+        return !node.terminals.isEmpty() || !node.children.isEmpty();
+    }
+
+    private void computeTop(Node node) {
+        Set<Suggestion> candidates = new LinkedHashSet<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        node.top = candidates.stream()
+                .sorted(byWeight)
+                .limit(MAX_SUGGESTIONS)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private void addName(Suggestion suggestion) {
+        if (suggestion.getType() == SuggestionType.CITY) {
+            cities.add(suggestion.getText());
+        } else if (suggestion.getType() == SuggestionType.LOCALITY) {
+            localitiesByCity.computeIfAbsent(suggestion.getCity(), city -> new TreeSet<>()).add(suggestion.getText());
+        }
+    }
+
+    private void removeName(Suggestion suggestion) {
+        if (suggestion.getType() == SuggestionType.CITY) {
+            cities.remove(suggestion.getText());
+        } else if (suggestion.getType() == SuggestionType.LOCALITY) {
+            NavigableSet<String> localities = localitiesByCity.get(suggestion.getCity());
+            if (localities != null) {
+                localities.remove(suggestion.getText());
+                if (localities.isEmpty()) {
+                    localitiesByCity.remove(suggestion.getCity());
+                }
+            }
+        }
+    }
+
+    private static List<Suggestion> suggestionsOf(PropertyDocument document) {
+        List<Suggestion> suggestions = new ArrayList<>(3);
+        if (isPresent(document.getCity())) {
+            suggestions.add(new Suggestion(SuggestionType.CITY, document.getCity(), null));
+        }
+        if (isPresent(document.getLocality())) {
+            suggestions.add(new Suggestion(SuggestionType.LOCALITY, document.getLocality(), document.getCity()));
+        }
+        if (isPresent(document.getProjectName())) {
+            suggestions.add(new Suggestion(SuggestionType.PROJECT, document.getProjectName(), document.getCity()));
+        }
+        return suggestions;
+    }
+
+    private static boolean isPresent(String text) {
+        return text != null && !key(text).isEmpty();
+    }
+
+    /**
+     * @return The name from its first word and from each later word
+     */
+    private static Set<String> keys(Suggestion suggestion) {
+        List<String> tokens = TextAnalyzer.tokenize(suggestion.getText());
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return keys;
+    }
+
+    private static String key(String text) {
+        return String.join(" ", TextAnalyzer.tokenize(text));
+    }
+
+    @Value
+    private static class Suggestion {
+        SuggestionType type;
+        String text;
+        String city;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Set<Suggestion> terminals = new HashSet<>();
+        private List<Suggestion> top = List.of();
+    }
+}
@@ -0,0 +1,106 @@
+package com.next.nest.index;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Quantile sketch over positive values with a bounded relative error, in the style of
+ * DDSketch.
+ * <p>
+ * Values are counted in logarithmic buckets whose bounds grow by a constant factor, so any
+ * quantile is returned within {@value #RELATIVE_ACCURACY} of its true value, and the
+ * number of buckets only grows with the logarithm of the value range. Because a value
+ * always lands in the same bucket, it can be removed again exactly, and two sketches are
+ * merged by adding up their buckets.
+ */
+final class QuantileSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private final NavigableMap<Integer, Long> buckets = new TreeMap<>();
+    private long count;
+    private double sum;
+
+    void add(double value) {
+        if (!(value > 0) || Double.isInfinite(value)) {
+            return;
+        }
+        buckets.merge(bucket(value), 1L, Long::sum);
+        count++;
+        sum += value;
+    }
+
+    void remove(double value) {
+        if (!(value > 0) || Double.isInfinite(value)) {
+            return;
+        }
+        int bucket = bucket(value);
+        Long bucketCount = buckets.get(bucket);
+        if (bucketCount == null) {
+            return;
+        }
+        if (bucketCount == 1) {
+            buckets.remove(bucket);
+        } else {
+            buckets.put(bucket, bucketCount - 1);
+        }
+        count--;
+        // Reset rather than subtract down to rounding noise
+        sum = count == 0 ? 0 : sum - value;
+    }
+
+    void merge(QuantileSketch other) {
+        other.buckets.forEach((bucket, bucketCount) -> buckets.merge(bucket, bucketCount, Long::sum));
+        count += other.count;
+        sum += other.sum;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return The exact mean, or null if the sketch is empty
+     */
+    Double mean() {
+        return count == 0 ? null : sum / count;
+    }
+
+    /**
+     * @param quantile Between 0 and 1, 0.5 for the median
+     * @return The value at the quantile, or null if the sketch is empty
+     */
+    Double quantile(double quantile) {
+        if (count == 0) {
+            return null;
+        }
+        double rank = quantile * (count - 1);
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : buckets.entrySet()) {
+            seen += entry.getValue();
+            if (seen > rank) {
+                return value(entry.getKey());
+            }
+        }
+        return value(buckets.lastKey());
+    }
+
+    private static int bucket(double value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    /**
+     * @return The point of the bucket equally far, relatively, from both of its bounds
+     */
+    private static double value(int bucket) {
+        return 2 * Math.pow(GAMMA, bucket) / (GAMMA + 1);
+    }
+}
@@ -0,0 +1,145 @@
+package com.next.nest.index;
+
+import com.next.nest.entity.enums.BookingStatus;
+import com.next.nest.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * Future bookings that are not cancelled or expired, ordered by scheduled time, overall and per
+ * property owner.
+ * <p>
+ * The sets are concurrent skip lists, so the next N bookings are a seek plus N steps and
+ * reads never block. Writes are rare (one per booking change, after commit) and serialised,
+ * so a booking is never in a set twice under different times. Bookings that have started
+ * are skipped when reading and dropped by a scheduled prune.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UpcomingBookingIndex {
+
+    private static final Comparator<Entry> BY_TIME = Comparator.comparing(Entry::getScheduledTime)
+            .thenComparing(Entry::getBookingId);
+
+    private final BookingRepository bookingRepository;
+
+    private final NavigableSet<Entry> upcoming = new ConcurrentSkipListSet<>(BY_TIME);
+    private final Map<Long, NavigableSet<Entry>> upcomingByOwner = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Record the current state of a booking; cancelled, expired and past bookings are removed.
+     */
+    public synchronized void update(Long bookingId, Long ownerId, LocalDateTime scheduledTime, BookingStatus status) {
+        remove(entries.remove(bookingId));
+        if (status.holdsSlot() && scheduledTime.isAfter(LocalDateTime.now())) {
+            add(new Entry(scheduledTime, bookingId, ownerId));
+        }
+    }
+
+    /**
+     * @return Ids of the next bookings, soonest first
+     */
+    public List<Long> findUpcoming(int limit) {
+        return next(upcoming, limit);
+    }
+
+    /**
+     * @return Ids of the next bookings of the owner's properties, soonest first
+     */
+    public List<Long> findUpcomingForOwner(Long ownerId, int limit) {
+        NavigableSet<Entry> owned = upcomingByOwner.get(ownerId);
+        return owned == null ? List.of() : next(owned, limit);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        List<Object[]> bookings = bookingRepository.findUpcomingEntries(BookingStatus.FREE, LocalDateTime.now());
+
+        synchronized (this) {
+            for (Object[] booking : bookings) {
+                Long bookingId = (Long) booking[0];
+                // Bookings changed while loading are already in, in a newer state
+                if (!entries.containsKey(bookingId)) {
+                    add(new Entry((LocalDateTime) booking[2], bookingId, (Long) booking[1]));
+                }
+            }
+        }
+
+        ready = true;
+        log.info("Upcoming booking index ready with {} bookings in {} ms",
+                entries.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Drop bookings that have started; reads skip them already.
+     */
+    @Scheduled(fixedDelayString = "${app.upcoming-bookings.prune-interval:PT1H}",
+            initialDelayString = "${app.upcoming-bookings.prune-interval:PT1H}")
+    public synchronized void prune() {
+        Entry now = new Entry(LocalDateTime.now(), Long.MIN_VALUE, null);
+        for (Entry past : List.copyOf(upcoming.headSet(now))) {
+            entries.remove(past.getBookingId());
+            remove(past);
+        }
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.getBookingId(), entry);
+        upcoming.add(entry);
+        upcomingByOwner.computeIfAbsent(entry.getOwnerId(), id -> new ConcurrentSkipListSet<>(BY_TIME)).add(entry);
+    }
+
+    private void remove(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        upcoming.remove(entry);
+        NavigableSet<Entry> owned = upcomingByOwner.get(entry.getOwnerId());
+        if (owned != null) {
+            owned.remove(entry);
+            if (owned.isEmpty()) {
+                upcomingByOwner.remove(entry.getOwnerId());
+            }
+        }
+    }
+
+    private static List<Long> next(NavigableSet<Entry> entries, int limit) {
+        Entry now = new Entry(LocalDateTime.now(), Long.MAX_VALUE, null);
+        return entries.tailSet(now, false).stream()
+                .limit(limit)
+                .map(Entry::getBookingId)
+                .collect(Collectors.toList());
+    }
+
+    @Value
+    private static class Entry {
+        LocalDateTime scheduledTime;
+        Long bookingId;
+        Long ownerId;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,6 +22,16 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             nativeQuery = true)
     Page<Booking> findByTenantId(@Param("tenantId") Long tenantId, Pageable pageable);
 
+    // Keyset (seek) variant: rows strictly after the cursor in (scheduled_time DESC, id DESC) order, no count query
+    @Query(value = "SELECT * FROM bookings WHERE tenant_id = :tenantId " +
+            "AND (scheduled_time, id) < (:scheduledTime, :id) " +
+            "ORDER BY scheduled_time DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Booking> findByTenantIdAfter(@Param("tenantId") Long tenantId,
+                                      @Param("scheduledTime") LocalDateTime scheduledTime,
+                                      @Param("id") Long id,
+                                      @Param("limit") int limit);
+
     @Query(value = "SELECT * FROM bookings WHERE property_owner_id = :ownerId",
             countQuery = "SELECT COUNT(*) FROM bookings WHERE property_owner_id = :ownerId",
             nativeQuery = true)
@@ -65,10 +76,119 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("startDateTime") LocalDateTime startDateTime,
             @Param("endDateTime") LocalDateTime endDateTime);
 
-    // Fixed the date comparison issue by explicitly casting to date in PostgreSQL
-    @Query(value = "SELECT COUNT(*) FROM bookings WHERE status = :status AND DATE(created_at) = CURRENT_DATE",
+    // Bookings other than the given one whose slot starts strictly between from and to
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.property.id = :propertyId " +
+            "AND b.status NOT IN :freeStatuses AND b.id <> :excludedId " +
+            "AND b.scheduledTime > :from AND b.scheduledTime < :to")
+    boolean existsSlotBetween(@Param("propertyId") Long propertyId,
+                              @Param("freeStatuses") Collection<BookingStatus> freeStatuses,
+                              @Param("excludedId") Long excludedId,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+
+    @Query("SELECT b.scheduledTime FROM Booking b WHERE b.property.id = :propertyId " +
+            "AND b.status NOT IN :freeStatuses AND b.scheduledTime > :from AND b.scheduledTime < :to " +
+            "ORDER BY b.scheduledTime")
+    List<LocalDateTime> findSlotStartsBetween(@Param("propertyId") Long propertyId,
+                                              @Param("freeStatuses") Collection<BookingStatus> freeStatuses,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    // id, property id and scheduled time of every booking holding a slot from the given time on
+    @Query("SELECT b.id, b.property.id, b.scheduledTime FROM Booking b " +
+            "WHERE b.status NOT IN :freeStatuses AND b.scheduledTime >= :from")
+    List<Object[]> findSlotsFrom(@Param("freeStatuses") Collection<BookingStatus> freeStatuses,
+                                 @Param("from") LocalDateTime from);
+
+    // id and scheduled time of every booking of the property holding a slot from the given time on
+    @Query("SELECT b.id, b.scheduledTime FROM Booking b " +
+            "WHERE b.property.id = :propertyId AND b.status NOT IN :freeStatuses AND b.scheduledTime >= :from")
+    List<Object[]> findSlotsOfPropertyFrom(@Param("propertyId") Long propertyId,
+                                           @Param("freeStatuses") Collection<BookingStatus> freeStatuses,
+                                           @Param("from") LocalDateTime from);
+
+    // id, property owner id and scheduled time of every upcoming booking
+    @Query("SELECT b.id, b.property.owner.id, b.scheduledTime FROM Booking b " +
+            "WHERE b.status NOT IN :freeStatuses AND b.scheduledTime > :from")
+    List<Object[]> findUpcomingEntries(@Param("freeStatuses") Collection<BookingStatus> freeStatuses,
+                                       @Param("from") LocalDateTime from);
+
+    @Query("SELECT b FROM Booking b WHERE b.status NOT IN :freeStatuses AND b.scheduledTime > :from " +
+            "ORDER BY b.scheduledTime, b.id")
+    List<Booking> findUpcoming(@Param("freeStatuses") Collection<BookingStatus> freeStatuses,
+                               @Param("from") LocalDateTime from,
+                               Pageable pageable);
+
+    @Query("SELECT b FROM Booking b WHERE b.property.owner.id = :ownerId " +
+            "AND b.status NOT IN :freeStatuses AND b.scheduledTime > :from " +
+            "ORDER BY b.scheduledTime, b.id")
+    List<Booking> findUpcomingByOwnerId(@Param("ownerId") Long ownerId,
+                                        @Param("freeStatuses") Collection<BookingStatus> freeStatuses,
+                                        @Param("from") LocalDateTime from,
+                                        Pageable pageable);
+
+    // id, scheduled time, status and reminders sent of every booking that may still get a reminder or expire
+    @Query("SELECT b.id, b.scheduledTime, b.status, b.remindersSent FROM Booking b " +
+            "WHERE b.status = :pending OR (b.status = :confirmed AND b.scheduledTime > :from)")
+    List<Object[]> findDeadlineEntries(@Param("pending") BookingStatus pending,
+                                       @Param("confirmed") BookingStatus confirmed,
+                                       @Param("from") LocalDateTime from);
+
+    // Expires the given bookings that are still pending at their time, skipping rows another
+    // transaction holds; returns id, property id and scheduled time of those expired
+    @Query(value = "UPDATE bookings b SET status = 'EXPIRED', updated_at = :now " +
+            "FROM (SELECT id FROM bookings WHERE id IN (:ids) AND status = 'PENDING' AND scheduled_time <= :now " +
+            "ORDER BY id FOR UPDATE SKIP LOCKED) due " +
+            "WHERE b.id = due.id RETURNING b.id, b.property_id, b.scheduled_time",
+            nativeQuery = true)
+    List<Object[]> expirePending(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Same as expirePending for any overdue pending bookings, oldest first
+    @Query(value = "UPDATE bookings b SET status = 'EXPIRED', updated_at = :now " +
+            "FROM (SELECT id FROM bookings WHERE status = 'PENDING' AND scheduled_time <= :now " +
+            "ORDER BY scheduled_time LIMIT :limit FOR UPDATE SKIP LOCKED) due " +
+            "WHERE b.id = due.id RETURNING b.id, b.property_id, b.scheduled_time",
+            nativeQuery = true)
+    List<Object[]> expireOverdue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Marks the reminder as sent for the given bookings still waiting for it, skipping rows
+    // another transaction holds; returns the ids of those claimed
+    @Query(value = "UPDATE bookings b SET reminders_sent = :reminder " +
+            "FROM (SELECT id FROM bookings WHERE id IN (:ids) AND status IN ('PENDING', 'CONFIRMED') " +
+            "AND reminders_sent < :reminder AND scheduled_time > :now " +
+            "ORDER BY id FOR UPDATE SKIP LOCKED) due " +
+            "WHERE b.id = due.id RETURNING b.id",
+            nativeQuery = true)
+    List<Long> claimReminders(@Param("ids") Collection<Long> ids,
+                              @Param("reminder") int reminder,
+                              @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.property p JOIN FETCH p.owner JOIN FETCH b.tenant " +
+            "WHERE b.id IN :ids")
+    List<Booking> findAllWithPartiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.tenant.id = :tenantId AND b.property.id = :propertyId")
+    boolean existsByTenantIdAndPropertyId(@Param("tenantId") Long tenantId, @Param("propertyId") Long propertyId);
+
+    // Every (tenant id, property id) pair with at least one booking
+    @Query("SELECT DISTINCT b.tenant.id, b.property.id FROM Booking b")
+    List<Object[]> findTenantPropertyPairs();
+
+    // A range on created_at rather than DATE(created_at), so the (status, created_at) index applies
+    @Query(value = "SELECT COUNT(*) FROM bookings WHERE status = :status " +
+            "AND created_at >= :dayStart AND created_at < :dayEnd",
+            nativeQuery = true)
+    Long countBookingsByStatusCreatedBetween(@Param("status") String status,
+                                             @Param("dayStart") LocalDateTime dayStart,
+                                             @Param("dayEnd") LocalDateTime dayEnd);
+
+    // Booking type, status, number of bookings and number created in the given range, per type and status
+    @Query(value = "SELECT booking_type, status, COUNT(*), " +
+            "COUNT(*) FILTER (WHERE created_at >= :dayStart AND created_at < :dayEnd) " +
+            "FROM bookings GROUP BY booking_type, status",
             nativeQuery = true)
-    Long countTodayBookingsByStatus(@Param("status") String status);
+    List<Object[]> countByTypeAndStatusWithCreatedBetween(@Param("dayStart") LocalDateTime dayStart,
+                                                          @Param("dayEnd") LocalDateTime dayEnd);
 
     @Query(value = "SELECT COUNT(*) FROM bookings WHERE booking_type = :type AND status = :status",
             nativeQuery = true)
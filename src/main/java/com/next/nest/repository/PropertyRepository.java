@@ -12,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -63,6 +64,38 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
             @Param("maxRent") BigDecimal maxRent,
             Pageable pageable);
 
+    // Keyset (seek) variants: rows strictly after the cursor in (created_at DESC, id DESC) order, no count query
+    @Query(value = "SELECT * FROM properties WHERE is_active = true " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Property> findActiveAfter(@Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM properties WHERE owner_id = :ownerId AND is_active = true " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Property> findByOwnerIdAfter(@Param("ownerId") Long ownerId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM properties WHERE is_active = true AND city = :city AND status = 'ACTIVE' " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Property> findByCityAndActiveStatusAfter(@Param("city") String city,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM properties WHERE is_active = true AND status = 'ACTIVE' AND id > :id " +
+            "ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Property> findActiveStatusAfterId(@Param("id") Long id, @Param("limit") int limit);
+
     @Query(value = "SELECT DISTINCT city FROM properties WHERE is_active = true ORDER BY city",
             nativeQuery = true)
     List<String> findDistinctCities();
@@ -75,21 +108,12 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
             nativeQuery = true)
     Long countByStatus(@Param("status") String status);
 
-    // Fix for the date comparison issue
-    @Query(value = "SELECT COUNT(*) FROM properties WHERE DATE(created_at) = CURRENT_DATE",
+    @Query(value = "SELECT status, COUNT(*) FROM properties GROUP BY status",
             nativeQuery = true)
-    Long countPropertiesAddedToday();
+    List<Object[]> countGroupByStatus();
 
-    @Query(value = "SELECT * FROM properties " +
-            "WHERE is_active = true AND status = 'ACTIVE' " +
-            "AND ST_DistanceSphere(ST_MakePoint(longitude, latitude), ST_MakePoint(:lng, :lat)) <= :radiusInMeters",
-            countQuery = "SELECT COUNT(*) FROM properties " +
-                    "WHERE is_active = true AND status = 'ACTIVE' " +
-                    "AND ST_DistanceSphere(ST_MakePoint(longitude, latitude), ST_MakePoint(:lng, :lat)) <= :radiusInMeters",
+    // Half-open range on the raw column so the created_at index can serve it
+    @Query(value = "SELECT COUNT(*) FROM properties WHERE created_at >= :from AND created_at < :to",
             nativeQuery = true)
-    Page<Property> findPropertiesWithinRadius(
-            @Param("lat") Double latitude,
-            @Param("lng") Double longitude,
-            @Param("radiusInMeters") Double radiusInMeters,
-            Pageable pageable);
+    Long countCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.next.nest.repository;
+
+import com.next.nest.entity.PropertySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface PropertySummaryRepository extends JpaRepository<PropertySummary, Long> {
+
+    // Counters are adjusted in place so concurrent writers never lose an update
+    @Modifying
+    @Query(value = "UPDATE property_summaries SET booking_count = booking_count + :delta WHERE property_id = :propertyId",
+            nativeQuery = true)
+    int adjustBookingCount(@Param("propertyId") Long propertyId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE property_summaries SET maintenance_request_count = maintenance_request_count + :delta " +
+            "WHERE property_id = :propertyId",
+            nativeQuery = true)
+    int adjustMaintenanceRequestCount(@Param("propertyId") Long propertyId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE property_summaries s SET owner_first_name = u.first_name, owner_last_name = u.last_name, " +
+            "owner_email = u.email, owner_phone_number = u.phone_number, " +
+            "owner_profile_image_url = u.profile_image_url, owner_role = u.role " +
+            "FROM users u WHERE u.id = :ownerId AND s.owner_id = u.id",
+            nativeQuery = true)
+    int refreshOwner(@Param("ownerId") Long ownerId);
+
+    // Summaries of freshly inserted properties, in one statement rather than one save per property
+    @Modifying
+    @Query(value = "INSERT INTO property_summaries (property_id, owner_id, owner_first_name, owner_last_name, " +
+            "owner_email, owner_phone_number, owner_profile_image_url, owner_role, " +
+            "booking_count, maintenance_request_count) " +
+            "SELECT p.id, u.id, u.first_name, u.last_name, u.email, u.phone_number, u.profile_image_url, u.role, 0, 0 " +
+            "FROM properties p JOIN users u ON u.id = p.owner_id WHERE p.id IN (:propertyIds) " +
+            "ON CONFLICT (property_id) DO NOTHING",
+            nativeQuery = true)
+    int createForProperties(@Param("propertyIds") Collection<Long> propertyIds);
+
+    // Recompute every summary from the source tables, creating the missing ones
+    @Modifying
+    @Query(value = "INSERT INTO property_summaries (property_id, owner_id, owner_first_name, owner_last_name, " +
+            "owner_email, owner_phone_number, owner_profile_image_url, owner_role, " +
+            "booking_count, maintenance_request_count) " +
+            "SELECT p.id, u.id, u.first_name, u.last_name, u.email, u.phone_number, u.profile_image_url, u.role, " +
+            "(SELECT COUNT(*) FROM bookings b WHERE b.property_id = p.id), " +
+            "(SELECT COUNT(*) FROM maintenance_requests m WHERE m.property_id = p.id) " +
+            "FROM properties p JOIN users u ON u.id = p.owner_id " +
+            "ON CONFLICT (property_id) DO UPDATE SET owner_id = EXCLUDED.owner_id, " +
+            "owner_first_name = EXCLUDED.owner_first_name, owner_last_name = EXCLUDED.owner_last_name, " +
+            "owner_email = EXCLUDED.owner_email, owner_phone_number = EXCLUDED.owner_phone_number, " +
+            "owner_profile_image_url = EXCLUDED.owner_profile_image_url, owner_role = EXCLUDED.owner_role, " +
+            "booking_count = EXCLUDED.booking_count, " +
+            "maintenance_request_count = EXCLUDED.maintenance_request_count",
+            nativeQuery = true)
+    int rebuildAll();
+}
@@ -26,6 +26,16 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             nativeQuery = true)
     Page<Transaction> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
+    // Keyset (seek) variant: rows strictly after the cursor in (created_at DESC, id DESC) order, no count query
+    @Query(value = "SELECT * FROM transactions WHERE user_id = :userId " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Transaction> findByUserIdAfter(@Param("userId") Long userId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        @Param("limit") int limit);
+
     @Query(value = "SELECT t.* FROM transactions t " +
             "JOIN bookings b ON t.booking_id = b.id " +
             "WHERE b.property_owner_id = :ownerId",
@@ -82,4 +92,8 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("type") String type,
             @Param("year") int year,
             @Param("month") int month);
-}
\ No newline at end of file
+
+    // id and booked property id of every transaction for a booking
+    @Query("SELECT t.id, b.property.id FROM Transaction t JOIN t.booking b")
+    List<Object[]> findAccessEntries();
+}
@@ -0,0 +1,69 @@
+package com.next.nest.security;
+
+import com.next.nest.entity.User;
+import com.next.nest.entity.enums.UserRole;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal of an authenticated request, set by {@link JwtAuthenticationFilter} from the
+ * user it loads to check the token. It carries what authorization checks need, so services
+ * get the caller through {@link CurrentUser} without loading the user again, and it holds
+ * no entity state that could go stale or lazy-load outside a session.
+ */
+@Value
+public class AuthenticatedUser implements UserDetails {
+
+    Long id;
+    String email;
+    UserRole role;
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public boolean isAdmin() {
+        return role == UserRole.ADMIN;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    // Credentials and account state were checked when the request was authenticated
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package com.next.nest.security;
+
+import com.next.nest.entity.User;
+import com.next.nest.exception.UnauthorizedException;
+import com.next.nest.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * The user of the current request. The security context is per request, so this bean can be
+ * a singleton injected anywhere; it reads the {@link AuthenticatedUser} the filter put there
+ * and only queries the users table for an entity reference that is actually used.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    private final UserRepository userRepository;
+
+    public AuthenticatedUser get() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new UnauthorizedException("User not authenticated");
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        // Authenticated some other way, e.g. with a username and password
+        return userRepository.findByEmail(authentication.getName())
+                .map(AuthenticatedUser::from)
+                .orElseThrow(() -> new UnauthorizedException("User not found"));
+    }
+
+    public Long getId() {
+        return get().getId();
+    }
+
+    /**
+     * @return The user as an entity to associate with others, loaded only if its state is read
+     */
+    public User getReference() {
+        return userRepository.getReferenceById(getId());
+    }
+}
@@ -0,0 +1,12 @@
+package com.next.nest.service;
+
+import com.next.nest.entity.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public interface BookingDeadlineService {
+
+    void schedule(Long bookingId, LocalDateTime scheduledTime, BookingStatus status, int remindersSent);
+
+    void rebuild();
+}
@@ -1,6 +1,7 @@
 package com.next.nest.service;
 
 import com.next.nest.dto.BookingDTO;
+import com.next.nest.dto.CursorPage;
 import com.next.nest.entity.enums.BookingStatus;
 import com.next.nest.entity.enums.BookingType;
 import org.springframework.data.domain.Page;
@@ -17,6 +18,8 @@ public interface BookingService {
     
     Page<BookingDTO> findByTenantId(Long tenantId, int page, int size);
     
+    CursorPage<BookingDTO> findByTenantId(Long tenantId, String cursor, int size);
+    
     Page<BookingDTO> findByPropertyOwnerId(Long ownerId, int page, int size);
     
     Page<BookingDTO> findByPropertyId(Long propertyId, int page, int size);
@@ -41,12 +44,16 @@ public interface BookingService {
     
     boolean isTimeSlotAvailable(Long propertyId, LocalDateTime startTime, LocalDateTime endTime);
     
+    List<LocalDateTime> findFreeSlots(Long propertyId, LocalDate startDate, LocalDate endDate);
+    
     void addFeedback(Long id, String feedback, Integer rating);
     
     Map<String, Object> getBookingStatistics();
     
     List<BookingDTO> findUpcomingBookings(int limit);
     
+    List<BookingDTO> findUpcomingBookingsByOwnerId(Long ownerId, int limit);
+    
     long countByStatusToday(BookingStatus status);
     
     long countByTypeAndStatus(BookingType type, BookingStatus status);
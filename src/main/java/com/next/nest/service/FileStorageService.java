@@ -1,5 +1,7 @@
 package com.next.nest.service;
 
+import com.next.nest.dto.PresignedUploadDTO;
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface FileStorageService {
@@ -13,6 +15,36 @@ public interface FileStorageService {
      */
     String storeFile(MultipartFile file, String directory);
     
+    /**
+     * Store content generated from a stored file, e.g. a resized image, in the directory of that file
+     *
+     * @param originalUrl The URL of the file the content was generated from
+     * @param filename The name to store the content under
+     * @param content The content to store
+     * @param contentType The MIME type of the content
+     * @return The URL to access the stored content
+     */
+    String storeDerivative(String originalUrl, String filename, byte[] content, String contentType);
+    
+    /**
+     * Issue a URL the client can upload a file to directly, without it passing through this server
+     *
+     * @param directory The directory path to store the file in
+     * @param filename The original name of the file
+     * @param contentType The MIME type the upload must be sent with
+     * @return Where and how to upload, and the key to complete the upload with
+     */
+    PresignedUploadDTO createUpload(String directory, String filename, String contentType);
+    
+    /**
+     * Register a file the client uploaded directly, after checking that it arrived
+     *
+     * @param key The key returned when the upload was created
+     * @param directory The directory path the upload must have been created for
+     * @return The URL to access the stored file
+     */
+    String completeUpload(String key, String directory);
+    
     /**
      * Delete a file by its URL
      *
@@ -22,10 +54,10 @@ public interface FileStorageService {
     boolean deleteFile(String fileUrl);
     
     /**
-     * Get the file as a byte array
+     * Get the file for streaming, without reading it into memory
      *
      * @param fileUrl The URL of the file to get
-     * @return The file as a byte array
+     * @return The file, with its length and last modification time
      */
-    byte[] getFile(String fileUrl);
+    Resource loadFile(String fileUrl);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.next.nest.service;
 
+import com.next.nest.dto.CursorPage;
 import com.next.nest.dto.TransactionDTO;
 import com.next.nest.entity.enums.PaymentStatus;
 import com.next.nest.entity.enums.TransactionType;
@@ -18,6 +19,8 @@ public interface PaymentService {
     
     Page<TransactionDTO> findByUserId(Long userId, int page, int size);
     
+    CursorPage<TransactionDTO> findByUserId(Long userId, String cursor, int size);
+    
     Page<TransactionDTO> findByBookingPropertyOwnerId(Long ownerId, int page, int size);
     
     Page<TransactionDTO> findByBookingId(Long bookingId, int page, int size);
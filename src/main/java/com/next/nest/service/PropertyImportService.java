@@ -0,0 +1,9 @@
+package com.next.nest.service;
+
+import com.next.nest.dto.PropertyImportResultDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface PropertyImportService {
+    
+    PropertyImportResultDTO importProperties(MultipartFile file);
+}
@@ -1,6 +1,12 @@
 package com.next.nest.service;
 
+import com.next.nest.dto.CursorPage;
+import com.next.nest.dto.FileUploadRequestDTO;
+import com.next.nest.dto.PresignedUploadDTO;
 import com.next.nest.dto.PropertyDTO;
+import com.next.nest.dto.PropertySearchResultDTO;
+import com.next.nest.dto.RentStatisticsDTO;
+import com.next.nest.dto.SuggestionDTO;
 import com.next.nest.entity.enums.ListingStatus;
 import com.next.nest.entity.enums.PropertyType;
 import org.springframework.data.domain.Page;
@@ -18,16 +24,26 @@ public interface PropertyService {
     
     Page<PropertyDTO> findAllActive(int page, int size);
     
+    CursorPage<PropertyDTO> findAllActive(String cursor, int size);
+    
     Page<PropertyDTO> findByOwnerId(Long ownerId, int page, int size);
     
+    CursorPage<PropertyDTO> findByOwnerId(Long ownerId, String cursor, int size);
+    
     Page<PropertyDTO> findByCity(String city, int page, int size);
     
+    CursorPage<PropertyDTO> findByCity(String city, String cursor, int size);
+    
     Page<PropertyDTO> findByCityAndLocality(String city, String locality, int page, int size);
 
     Page<PropertyDTO> findByFilters(String city, PropertyType propertyType, Integer bhkType,
                                    BigDecimal minRent, BigDecimal maxRent, Map<String, Object> additionalFilters,
                                    int page, int size);
 
+    PropertySearchResultDTO findByFilters(String city, PropertyType propertyType, Integer bhkType,
+                                          BigDecimal minRent, BigDecimal maxRent, Map<String, Object> additionalFilters,
+                                          int page, int size, boolean includeFacets);
+
     Page<PropertyDTO> findByCoordinates(Double latitude, Double longitude, Double radius,
                                         Map<String, Object> filters, int page, int size);
     
@@ -41,19 +57,35 @@ public interface PropertyService {
 
     PropertyDTO addImages(Long id, List<MultipartFile> images);
     
+    PresignedUploadDTO createImageUpload(Long id, FileUploadRequestDTO request);
+    
+    PropertyDTO completeImageUploads(Long id, List<String> keys);
+    
     void removeImage(Long id, String imageUrl);
     
     List<String> getDistinctCities();
     
     List<String> getDistinctLocalitiesByCity(String city);
     
+    List<SuggestionDTO> suggest(String prefix, int limit);
+    
     Map<String, Object> getPropertyStatistics();
     
+    RentStatisticsDTO getRentStatistics(String city, String locality, Integer bhkType);
+    
     void verifyProperty(Long id, boolean isVerified, String notes);
     
     List<PropertyDTO> findRecentlyAddedProperties(int limit);
     
+    List<PropertyDTO> findSimilarProperties(Long id, int limit);
+    
     Page<PropertyDTO> searchProperties(String query, Map<String, Object> filters, int page, int size);
     
+    PropertySearchResultDTO searchProperties(String query, Map<String, Object> filters, int page, int size,
+                                             boolean includeFacets);
+    
     Page<PropertyDTO> findByAmenities(List<String> amenities, Map<String, Object> filters, int page, int size);
+    
+    Page<PropertyDTO> findByAmenities(List<String> amenities, int minMatches, Map<String, Object> filters,
+                                      int page, int size);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.next.nest.service;
+
+import com.next.nest.entity.Property;
+import com.next.nest.entity.enums.ListingStatus;
+
+import java.util.Map;
+
+public interface PropertyStatisticsService {
+    
+    Map<String, Object> getStatistics();
+    
+    void listingCreated(Property property);
+    
+    void statusChanged(ListingStatus from, ListingStatus to);
+    
+    void reconcile();
+}
@@ -0,0 +1,26 @@
+package com.next.nest.service;
+
+import com.next.nest.entity.Property;
+import com.next.nest.entity.PropertySummary;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface PropertySummaryService {
+    
+    Map<Long, PropertySummary> findByPropertyIds(Collection<Long> propertyIds);
+    
+    void createFor(Property property);
+    
+    void createForProperties(Collection<Long> propertyIds);
+    
+    void bookingCreated(Long propertyId);
+    
+    void maintenanceRequestCreated(Long propertyId);
+    
+    void maintenanceRequestDeleted(Long propertyId);
+    
+    void ownerUpdated(Long ownerId);
+    
+    void rebuild();
+}
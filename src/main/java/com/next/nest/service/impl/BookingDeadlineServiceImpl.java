@@ -0,0 +1,272 @@
+package com.next.nest.service.impl;
+
+import com.next.nest.entity.Booking;
+import com.next.nest.entity.enums.BookingStatus;
+import com.next.nest.index.BookingSlotIndex;
+import com.next.nest.index.UpcomingBookingIndex;
+import com.next.nest.repository.BookingRepository;
+import com.next.nest.service.BookingDeadlineService;
+import com.next.nest.util.EmailService;
+import com.next.nest.util.HashedTimingWheel;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Sends visit reminders a day and an hour before a booking, and expires bookings still
+ * pending when their time comes.
+ * <p>
+ * Every deadline sits in a {@link HashedTimingWheel} advanced once per tick, so the cost of
+ * a tick depends on the deadlines due, not on the number of bookings. The wheel only says
+ * when to look: the deadlines due in a tick are flushed in batched updates that check the
+ * booking's state in the database and skip rows locked by another transaction
+ * ({@code FOR UPDATE SKIP LOCKED}). A stale deadline is therefore harmless, and several
+ * instances can hold the same deadline without sending a reminder twice or expiring a
+ * booking that was just confirmed. The wheel is rebuilt from the database at startup, and a
+ * periodic sweep expires overdue bookings whose deadline only lived on an instance that
+ * has gone away.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingDeadlineServiceImpl implements BookingDeadlineService {
+
+    // One turn of the wheel covers over eight hours at the default one minute tick
+    private static final int WHEEL_SIZE = 512;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final BookingRepository bookingRepository;
+    private final BookingSlotIndex bookingSlotIndex;
+    private final UpcomingBookingIndex upcomingBookingIndex;
+    private final EmailService emailService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.booking-deadlines.tick:PT1M}")
+    private Duration tick;
+
+    @Value("${app.booking-deadlines.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.booking-deadlines.reminder-grace:PT15M}")
+    private Duration reminderGrace;
+
+    private final Map<Long, List<HashedTimingWheel.Timeout<Deadline>>> timeouts = new ConcurrentHashMap<>();
+
+    private HashedTimingWheel<Deadline> wheel;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        wheel = new HashedTimingWheel<>(tick.toMillis(), WHEEL_SIZE, System.currentTimeMillis());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Replace the deadlines of a booking with those of its current state.
+     */
+    @Override
+    public void schedule(Long bookingId, LocalDateTime scheduledTime, BookingStatus status, int remindersSent) {
+        long now = System.currentTimeMillis();
+        timeouts.compute(bookingId, (id, previous) -> {
+            if (previous != null) {
+                previous.forEach(HashedTimingWheel.Timeout::cancel);
+            }
+            List<HashedTimingWheel.Timeout<Deadline>> scheduled = new ArrayList<>();
+            for (Kind kind : Kind.values()) {
+                if (!kind.appliesTo(status, remindersSent)) {
+                    continue;
+                }
+                long deadline = toMillis(scheduledTime.minus(kind.before));
+                // A reminder that is long overdue, e.g. for a visit booked at short notice, is not sent
+                if (kind.reminder > 0 && deadline < now - reminderGrace.toMillis()) {
+                    continue;
+                }
+                scheduled.add(wheel.schedule(new Deadline(bookingId, kind), deadline));
+            }
+            return scheduled.isEmpty() ? null : scheduled;
+        });
+    }
+
+    @Override
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> bookings = bookingRepository.findDeadlineEntries(
+                BookingStatus.PENDING, BookingStatus.CONFIRMED, LocalDateTime.now());
+
+        for (Object[] booking : bookings) {
+            Long bookingId = (Long) booking[0];
+            // Bookings changed while loading are already scheduled, in a newer state
+            if (!timeouts.containsKey(bookingId)) {
+                schedule(bookingId, (LocalDateTime) booking[1], (BookingStatus) booking[2],
+                        ((Number) booking[3]).intValue());
+            }
+        }
+
+        log.info("Booking deadlines rebuilt for {} bookings in {} ms",
+                bookings.size(), System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking-deadlines.tick:PT1M}")
+    public void tick() {
+        List<Deadline> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<Kind, List<Long>> dueByKind = due.stream().collect(Collectors.groupingBy(Deadline::getKind,
+                () -> new EnumMap<>(Kind.class), Collectors.mapping(Deadline::getBookingId, Collectors.toList())));
+        dueByKind.forEach((kind, bookingIds) -> {
+            for (int from = 0; from < bookingIds.size(); from += batchSize) {
+                List<Long> batch = bookingIds.subList(from, Math.min(from + batchSize, bookingIds.size()));
+                try {
+                    if (kind == Kind.EXPIRY) {
+                        expired(transactionTemplate.execute(status ->
+                                bookingRepository.expirePending(batch, LocalDateTime.now())));
+                    } else {
+                        remind(batch, kind);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Could not process {} deadlines of {} bookings, retrying next tick",
+                            kind, batch.size(), e);
+                    retry(batch, kind);
+                }
+            }
+        });
+
+        // Forget bookings with nothing left to fire
+        for (Deadline deadline : due) {
+            timeouts.computeIfPresent(deadline.getBookingId(), (id, scheduled) ->
+                    scheduled.stream().anyMatch(HashedTimingWheel.Timeout::isPending) ? scheduled : null);
+        }
+    }
+
+    /**
+     * Put deadlines back into the wheel a tick from now. The wheel has already dropped them,
+     * and nothing else would send the reminders; the batch rolled back, so the retry sees the
+     * bookings as they were.
+     */
+    private void retry(List<Long> bookingIds, Kind kind) {
+        long retryAt = System.currentTimeMillis() + tick.toMillis();
+        for (Long bookingId : bookingIds) {
+            timeouts.compute(bookingId, (id, scheduled) -> {
+                List<HashedTimingWheel.Timeout<Deadline>> updated =
+                        scheduled == null ? new ArrayList<>() : new ArrayList<>(scheduled);
+                updated.add(wheel.schedule(new Deadline(bookingId, kind), retryAt));
+                return updated;
+            });
+        }
+    }
+
+    /**
+     * Expire overdue pending bookings whatever their deadlines, in batches.
+     */
+    @Scheduled(fixedDelayString = "${app.booking-deadlines.sweep-interval:PT15M}",
+            initialDelayString = "${app.booking-deadlines.sweep-interval:PT15M}")
+    public void sweep() {
+        List<Object[]> expired;
+        do {
+            expired = transactionTemplate.execute(status ->
+                    bookingRepository.expireOverdue(LocalDateTime.now(), batchSize));
+            expired(expired);
+        } while (expired.size() == batchSize);
+    }
+
+    private void remind(List<Long> bookingIds, Kind kind) {
+        // Claimed and marked as sent in one statement, so only one instance sends each reminder
+        List<Booking> bookings = transactionTemplate.execute(status -> {
+            List<Long> claimed = bookingRepository.claimReminders(bookingIds, kind.reminder, LocalDateTime.now());
+            return claimed.isEmpty() ? List.<Booking>of() : bookingRepository.findAllWithPartiesByIdIn(claimed);
+        });
+
+        for (Booking booking : bookings) {
+            String propertyTitle = booking.getProperty().getTitle();
+            String date = booking.getScheduledTime().format(DATE_FORMAT);
+            String time = booking.getScheduledTime().format(TIME_FORMAT);
+            String bookingId = booking.getId().toString();
+
+            emailService.sendBookingReminderEmail(booking.getTenant().getEmail(),
+                    booking.getTenant().getFirstName() + " " + booking.getTenant().getLastName(),
+                    propertyTitle, date, time, bookingId);
+            emailService.sendBookingReminderEmail(booking.getProperty().getOwner().getEmail(),
+                    booking.getProperty().getOwner().getFirstName() + " " + booking.getProperty().getOwner().getLastName(),
+                    propertyTitle, date, time, bookingId);
+        }
+    }
+
+    /**
+     * Give up the slots of bookings that have just expired.
+     *
+     * @param bookings id, property id and scheduled time of each booking
+     */
+    private void expired(List<Object[]> bookings) {
+        for (Object[] booking : bookings) {
+            Long bookingId = ((Number) booking[0]).longValue();
+            Long propertyId = ((Number) booking[1]).longValue();
+            LocalDateTime scheduledTime = booking[2] instanceof Timestamp timestamp
+                    ? timestamp.toLocalDateTime()
+                    : (LocalDateTime) booking[2];
+
+            bookingSlotIndex.release(propertyId, scheduledTime, bookingId);
+            upcomingBookingIndex.update(bookingId, null, scheduledTime, BookingStatus.EXPIRED);
+        }
+        if (!bookings.isEmpty()) {
+            log.info("Expired {} pending bookings", bookings.size());
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private enum Kind {
+        DAY_BEFORE_REMINDER(Duration.ofHours(24), 1),
+        HOUR_BEFORE_REMINDER(Duration.ofHours(1), 2),
+        EXPIRY(Duration.ZERO, 0);
+
+        private final Duration before;
+        // Value of Booking.remindersSent once this reminder is sent, 0 for the expiry
+        private final int reminder;
+
+        Kind(Duration before, int reminder) {
+            this.before = before;
+            this.reminder = reminder;
+        }
+
+        boolean appliesTo(BookingStatus status, int remindersSent) {
+            if (reminder == 0) {
+                return status == BookingStatus.PENDING;
+            }
+            return (status == BookingStatus.PENDING || status == BookingStatus.CONFIRMED) && remindersSent < reminder;
+        }
+    }
+
+    @lombok.Value
+    private static class Deadline {
+        Long bookingId;
+        Kind kind;
+    }
+}
@@ -1,6 +1,8 @@
 package com.next.nest.service.impl;
 
+import com.next.nest.config.CacheConfig;
 import com.next.nest.dto.BookingDTO;
+import com.next.nest.dto.CursorPage;
 import com.next.nest.dto.PropertyDTO;
 import com.next.nest.dto.UserDTO;
 import com.next.nest.entity.Booking;
@@ -8,32 +10,49 @@ import com.next.nest.entity.Property;
 import com.next.nest.entity.User;
 import com.next.nest.entity.enums.BookingStatus;
 import com.next.nest.entity.enums.BookingType;
-import com.next.nest.entity.enums.UserRole;
 import com.next.nest.exception.BadRequestException;
 import com.next.nest.exception.ResourceNotFoundException;
 import com.next.nest.exception.UnauthorizedException;
+import com.next.nest.event.BookingCreatedEvent;
+import com.next.nest.index.AccessIndex;
+import com.next.nest.index.BookingSlotIndex;
+import com.next.nest.index.UpcomingBookingIndex;
 import com.next.nest.repository.BookingRepository;
 import com.next.nest.repository.PropertyRepository;
-import com.next.nest.repository.UserRepository;
+import com.next.nest.security.AuthenticatedUser;
+import com.next.nest.security.CurrentUser;
+import com.next.nest.service.BookingDeadlineService;
 import com.next.nest.service.BookingService;
+import com.next.nest.service.PropertySummaryService;
 import com.next.nest.util.EmailService;
+import com.next.nest.util.ImageVariants;
+import com.next.nest.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,10 +60,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    private static final int MAX_FREE_SLOT_DAYS = 31;
+
     private final BookingRepository bookingRepository;
     private final PropertyRepository propertyRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
     private final EmailService emailService;
+    private final PropertySummaryService propertySummaryService;
+    private final BookingSlotIndex bookingSlotIndex;
+    private final UpcomingBookingIndex upcomingBookingIndex;
+    private final BookingDeadlineService bookingDeadlineService;
+    private final AccessIndex accessIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -64,8 +91,8 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public Page<BookingDTO> findByTenantId(Long tenantId, int page, int size) {
         // Security check: only the tenant or admin can access their bookings
-        User currentUser = getCurrentUser();
-        if (!currentUser.getId().equals(tenantId) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(tenantId) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these bookings");
         }
 
@@ -74,12 +101,29 @@ public class BookingServiceImpl implements BookingService {
                 .map(this::mapToDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookingDTO> findByTenantId(Long tenantId, String cursor, int size) {
+        // Security check: only the tenant or admin can access their bookings
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(tenantId) && !user.isAdmin()) {
+            throw new UnauthorizedException("You are not authorized to access these bookings");
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return CursorPage.of(
+                bookingRepository.findByTenantIdAfter(tenantId, after.getSortKey(), after.getId(), size + 1),
+                size,
+                booking -> new KeysetCursor(booking.getScheduledTime(), booking.getId()),
+                this::mapToDTO);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<BookingDTO> findByPropertyOwnerId(Long ownerId, int page, int size) {
         // Security check: only the property owner or admin can access these bookings
-        User currentUser = getCurrentUser();
-        if (!currentUser.getId().equals(ownerId) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(ownerId) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these bookings");
         }
 
@@ -96,8 +140,8 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + propertyId));
 
         // Security check: only the property owner or admin can access these bookings
-        User currentUser = getCurrentUser();
-        if (!property.getOwner().getId().equals(currentUser.getId()) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId()) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these bookings");
         }
 
@@ -114,8 +158,8 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + propertyId));
 
         // Security check: only the property owner or admin can access these bookings
-        User currentUser = getCurrentUser();
-        if (!property.getOwner().getId().equals(currentUser.getId()) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId()) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these bookings");
         }
 
@@ -128,8 +172,8 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public Page<BookingDTO> findByTenantIdAndStatus(Long tenantId, BookingStatus status, int page, int size) {
         // Security check: only the tenant or admin can access their bookings
-        User currentUser = getCurrentUser();
-        if (!currentUser.getId().equals(tenantId) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(tenantId) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these bookings");
         }
 
@@ -142,8 +186,8 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public Page<BookingDTO> findByPropertyOwnerIdAndStatus(Long ownerId, BookingStatus status, int page, int size) {
         // Security check: only the property owner or admin can access these bookings
-        User currentUser = getCurrentUser();
-        if (!currentUser.getId().equals(ownerId) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(ownerId) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these bookings");
         }
 
@@ -156,18 +200,12 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     public BookingDTO create(BookingDTO bookingDTO) {
         // Get the current user (tenant)
-        User tenant = getCurrentUser();
+        User tenant = currentUser.getReference();
 
         // Verify property exists
         Property property = propertyRepository.findById(bookingDTO.getPropertyId())
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + bookingDTO.getPropertyId()));
 
-        // Check if the time slot is available
-        if (!isTimeSlotAvailable(property.getId(), bookingDTO.getScheduledTime(),
-                bookingDTO.getScheduledTime().plusMinutes(30))) {
-            throw new BadRequestException("This time slot is not available");
-        }
-
         // Create booking
         Booking booking = Booking.builder()
                 .property(property)
@@ -185,7 +223,13 @@ public class BookingServiceImpl implements BookingService {
                 .tenantRequirements(bookingDTO.getTenantRequirements())
                 .build();
 
+        // The id comes from the sequence on save, the insert itself only happens on flush
         Booking savedBooking = bookingRepository.save(booking);
+        reserveSlot(savedBooking, savedBooking.getScheduledTime());
+        flush();
+        trackSchedule(savedBooking);
+        eventPublisher.publishEvent(new BookingCreatedEvent(savedBooking.getId(), tenant.getId(), property.getId()));
+        propertySummaryService.bookingCreated(property.getId());
 
         // Send notification emails
         sendBookingNotificationEmails(savedBooking);
@@ -200,25 +244,27 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + id));
 
         // Security check: only the tenant can update their booking
-        User currentUser = getCurrentUser();
-        if (!booking.getTenant().getId().equals(currentUser.getId())) {
+        AuthenticatedUser user = currentUser.get();
+        if (!booking.getTenant().getId().equals(user.getId())) {
             throw new UnauthorizedException("You are not authorized to update this booking");
         }
 
-        // Verify booking is not already completed or cancelled
-        if (booking.getStatus() == BookingStatus.COMPLETED || booking.getStatus() == BookingStatus.CANCELLED) {
-            throw new BadRequestException("Cannot update a completed or cancelled booking");
+        // Verify booking is not already completed, cancelled or expired
+        if (booking.getStatus() == BookingStatus.COMPLETED || !booking.getStatus().holdsSlot()) {
+            throw new BadRequestException("Cannot update a completed, cancelled or expired booking");
         }
 
         // Check if changing scheduled time
-        if (!booking.getScheduledTime().equals(bookingDTO.getScheduledTime())) {
-            // Check if the new time slot is available
-            if (!isTimeSlotAvailable(booking.getProperty().getId(), bookingDTO.getScheduledTime(),
-                    bookingDTO.getScheduledTime().plusMinutes(30))) {
-                throw new BadRequestException("This time slot is not available");
-            }
+        LocalDateTime previousTime = booking.getScheduledTime();
+        boolean rescheduled = !previousTime.equals(bookingDTO.getScheduledTime());
+        if (rescheduled) {
+            // Reserve the new time slot; the old one is only given up once the change is committed
+            reserveSlot(booking, bookingDTO.getScheduledTime());
+            afterCommit(() -> bookingSlotIndex.release(booking.getProperty().getId(), previousTime, booking.getId()));
 
             booking.setScheduledTime(bookingDTO.getScheduledTime());
+            // Reminders are due again for the new time
+            booking.setRemindersSent(0);
         }
 
         booking.setNotes(bookingDTO.getNotes());
@@ -231,6 +277,10 @@ public class BookingServiceImpl implements BookingService {
         booking.setTenantRequirements(bookingDTO.getTenantRequirements());
 
         Booking updatedBooking = bookingRepository.save(booking);
+        if (rescheduled) {
+            flush();
+            trackSchedule(updatedBooking);
+        }
 
         return mapToDTO(updatedBooking);
     }
@@ -243,24 +293,31 @@ public class BookingServiceImpl implements BookingService {
 
         // Security check: tenant can only cancel their booking
         // Property owner can confirm, complete, or cancel the booking
-        User currentUser = getCurrentUser();
-        boolean isTenant = booking.getTenant().getId().equals(currentUser.getId());
-        boolean isOwner = booking.getProperty().getOwner().getId().equals(currentUser.getId());
+        AuthenticatedUser user = currentUser.get();
+        boolean isTenant = booking.getTenant().getId().equals(user.getId());
+        boolean isOwner = ownsProperty(user.getId(), booking.getProperty());
 
         if (status == BookingStatus.CANCELLED) {
-            if (!isTenant && !isOwner && !isAdmin(currentUser)) {
+            if (!isTenant && !isOwner && !user.isAdmin()) {
                 throw new UnauthorizedException("You are not authorized to cancel this booking");
             }
         } else if (status == BookingStatus.CONFIRMED || status == BookingStatus.COMPLETED) {
-            if (!isOwner && !isAdmin(currentUser)) {
+            if (!isOwner && !user.isAdmin()) {
                 throw new UnauthorizedException("You are not authorized to confirm or complete this booking");
             }
         } else {
-            if (!isOwner && !isAdmin(currentUser)) {
+            if (!isOwner && !user.isAdmin()) {
                 throw new UnauthorizedException("You are not authorized to change the status of this booking");
             }
         }
 
+        BookingStatus previousStatus = booking.getStatus();
+        if (!previousStatus.holdsSlot() && status.holdsSlot()) {
+            reserveSlot(booking, booking.getScheduledTime());
+        } else if (previousStatus.holdsSlot() && !status.holdsSlot()) {
+            releaseSlotAfterCommit(booking);
+        }
+
         booking.setStatus(status);
 
         if (status == BookingStatus.CONFIRMED) {
@@ -270,6 +327,10 @@ public class BookingServiceImpl implements BookingService {
         }
 
         Booking updatedBooking = bookingRepository.save(booking);
+        if (!previousStatus.holdsSlot() && status.holdsSlot()) {
+            flush();
+        }
+        trackSchedule(updatedBooking);
 
         // Send status update email
         sendBookingStatusUpdateEmail(updatedBooking);
@@ -284,15 +345,19 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + id));
 
         // Security check: only the tenant can delete their booking
-        User currentUser = getCurrentUser();
-        if (!booking.getTenant().getId().equals(currentUser.getId()) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!booking.getTenant().getId().equals(user.getId()) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to delete this booking");
         }
 
         // Instead of hard delete, just cancel the booking
+        if (booking.getStatus().holdsSlot()) {
+            releaseSlotAfterCommit(booking);
+        }
         booking.setStatus(BookingStatus.CANCELLED);
         booking.setCancellationReason("Deleted by user");
         bookingRepository.save(booking);
+        trackSchedule(booking);
     }
 
     @Override
@@ -315,10 +380,10 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + propertyId));
 
         // Security check: only the property owner or tenant with a booking can access these bookings
-        User currentUser = getCurrentUser();
-        if (!property.getOwner().getId().equals(currentUser.getId()) &&
-                !hasBookingForProperty(currentUser.getId(), propertyId) &&
-                !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId()) &&
+                !hasBookingForProperty(user.getId(), propertyId) &&
+                !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these bookings");
         }
 
@@ -334,19 +399,39 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public boolean isTimeSlotAvailable(Long propertyId, LocalDateTime startTime, LocalDateTime endTime) {
-        // Find bookings that overlap with the requested time slot
-        LocalDateTime startDateTime = startTime.minusMinutes(30); // Buffer before
-        LocalDateTime endDateTime = endTime.plusMinutes(30); // Buffer after
+        // Every booking holds a slot of the same length, so only the start time matters
+        return isSlotAvailable(propertyId, startTime, null);
+    }
 
-        List<Booking> overlappingBookings = bookingRepository.findByPropertyIdAndScheduledTimeBetween(
-                propertyId, startDateTime, endDateTime);
+    @Override
+    @Transactional(readOnly = true)
+    public List<LocalDateTime> findFreeSlots(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new BadRequestException("Start date must not be after end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_FREE_SLOT_DAYS) {
+            throw new BadRequestException("Free slots can be listed for at most " + MAX_FREE_SLOT_DAYS + " days");
+        }
+        if (!propertyRepository.existsById(propertyId)) {
+            throw new ResourceNotFoundException("Property not found with id: " + propertyId);
+        }
 
-        // Filter out cancelled bookings
-        overlappingBookings = overlappingBookings.stream()
-                .filter(booking -> booking.getStatus() != BookingStatus.CANCELLED)
-                .collect(Collectors.toList());
+        List<LocalDateTime> freeSlots = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (bookingSlotIndex.isReady()) {
+                freeSlots.addAll(bookingSlotIndex.freeSlots(propertyId, day));
+            } else {
+                List<LocalDateTime> booked = bookingRepository.findSlotStartsBetween(propertyId, BookingStatus.FREE,
+                        day.atTime(BookingSlotIndex.FIRST_VISIT).minus(BookingSlotIndex.SLOT),
+                        day.atTime(BookingSlotIndex.LAST_VISIT).plus(BookingSlotIndex.SLOT));
+                freeSlots.addAll(BookingSlotIndex.freeSlots(day, booked));
+            }
+        }
 
-        return overlappingBookings.isEmpty();
+        // Cached per day regardless of the time of day, so drop what has started since
+        LocalDateTime now = LocalDateTime.now();
+        freeSlots.removeIf(slot -> slot.isBefore(now));
+        return freeSlots;
     }
 
     @Override
@@ -356,8 +441,8 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + id));
 
         // Security check: only the tenant can add feedback
-        User currentUser = getCurrentUser();
-        if (!booking.getTenant().getId().equals(currentUser.getId())) {
+        AuthenticatedUser user = currentUser.get();
+        if (!booking.getTenant().getId().equals(user.getId())) {
             throw new UnauthorizedException("You are not authorized to add feedback to this booking");
         }
 
@@ -374,40 +459,81 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.BOOKING_STATISTICS, key = "'all'", sync = true)
     public Map<String, Object> getBookingStatistics() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        Map<BookingStatus, Long> totalByStatus = new EnumMap<>(BookingStatus.class);
+        Map<BookingStatus, Long> todayByStatus = new EnumMap<>(BookingStatus.class);
+        Map<BookingType, Long> totalByType = new EnumMap<>(BookingType.class);
+
+        // Every count in one pass over the table
+        for (Object[] row : bookingRepository.countByTypeAndStatusWithCreatedBetween(today, today.plusDays(1))) {
+            BookingType type = BookingType.valueOf((String) row[0]);
+            BookingStatus status = BookingStatus.valueOf((String) row[1]);
+            long total = ((Number) row[2]).longValue();
+            long createdToday = ((Number) row[3]).longValue();
+
+            totalByStatus.merge(status, total, Long::sum);
+            todayByStatus.merge(status, createdToday, Long::sum);
+            totalByType.merge(type, total, Long::sum);
+        }
+
         Map<String, Object> stats = new HashMap<>();
 
-        stats.put("totalPending", bookingRepository.countByTypeAndStatus(null, BookingStatus.PENDING.name()));
-        stats.put("totalConfirmed", bookingRepository.countByTypeAndStatus(null, BookingStatus.CONFIRMED.name()));
-        stats.put("totalCompleted", bookingRepository.countByTypeAndStatus(null, BookingStatus.COMPLETED.name()));
-        stats.put("totalCancelled", bookingRepository.countByTypeAndStatus(null, BookingStatus.CANCELLED.name()));
+        stats.put("totalPending", totalByStatus.getOrDefault(BookingStatus.PENDING, 0L));
+        stats.put("totalConfirmed", totalByStatus.getOrDefault(BookingStatus.CONFIRMED, 0L));
+        stats.put("totalCompleted", totalByStatus.getOrDefault(BookingStatus.COMPLETED, 0L));
+        stats.put("totalCancelled", totalByStatus.getOrDefault(BookingStatus.CANCELLED, 0L));
+        stats.put("totalExpired", totalByStatus.getOrDefault(BookingStatus.EXPIRED, 0L));
 
-        stats.put("pendingToday", countByStatusToday(BookingStatus.PENDING));
-        stats.put("confirmedToday", countByStatusToday(BookingStatus.CONFIRMED));
-        stats.put("completedToday", countByStatusToday(BookingStatus.COMPLETED));
+        stats.put("pendingToday", todayByStatus.getOrDefault(BookingStatus.PENDING, 0L));
+        stats.put("confirmedToday", todayByStatus.getOrDefault(BookingStatus.CONFIRMED, 0L));
+        stats.put("completedToday", todayByStatus.getOrDefault(BookingStatus.COMPLETED, 0L));
 
-        stats.put("propertyVisits", bookingRepository.countByTypeAndStatus(BookingType.PROPERTY_VISIT.name(), null));
-        stats.put("virtualTours", bookingRepository.countByTypeAndStatus(BookingType.VIRTUAL_TOUR.name(), null));
-        stats.put("propertyUnlocks", bookingRepository.countByTypeAndStatus(BookingType.PROPERTY_UNLOCK.name(), null));
+        stats.put("propertyVisits", totalByType.getOrDefault(BookingType.PROPERTY_VISIT, 0L));
+        stats.put("virtualTours", totalByType.getOrDefault(BookingType.VIRTUAL_TOUR, 0L));
+        stats.put("propertyUnlocks", totalByType.getOrDefault(BookingType.PROPERTY_UNLOCK, 0L));
 
-        return stats;
+        // Shared by every caller while cached
+        return Collections.unmodifiableMap(stats);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingDTO> findUpcomingBookings(int limit) {
-        return bookingRepository.findAll(PageRequest.of(0, limit, Sort.by("scheduledTime").ascending()))
-                .stream()
-                .filter(booking -> booking.getScheduledTime().isAfter(LocalDateTime.now()))
-                .filter(booking -> booking.getStatus() != BookingStatus.CANCELLED)
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        if (!upcomingBookingIndex.isReady()) {
+            return bookingRepository.findUpcoming(BookingStatus.FREE, LocalDateTime.now(), PageRequest.of(0, limit))
+                    .stream()
+                    .map(this::mapToDTO)
+                    .collect(Collectors.toList());
+        }
+        return findAllInOrder(upcomingBookingIndex.findUpcoming(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDTO> findUpcomingBookingsByOwnerId(Long ownerId, int limit) {
+        // Security check: only the owner or admin can see the bookings of the owner's properties
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(ownerId) && !user.isAdmin()) {
+            throw new UnauthorizedException("You are not authorized to view these bookings");
+        }
+
+        if (!upcomingBookingIndex.isReady()) {
+            return bookingRepository.findUpcomingByOwnerId(ownerId, BookingStatus.FREE, LocalDateTime.now(),
+                            PageRequest.of(0, limit))
+                    .stream()
+                    .map(this::mapToDTO)
+                    .collect(Collectors.toList());
+        }
+        return findAllInOrder(upcomingBookingIndex.findUpcomingForOwner(ownerId, limit));
     }
 
     @Override
     @Transactional(readOnly = true)
     public long countByStatusToday(BookingStatus status) {
-        return bookingRepository.countTodayBookingsByStatus(status.name());
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        return bookingRepository.countBookingsByStatusCreatedBetween(status.name(), today, today.plusDays(1));
     }
 
     @Override
@@ -416,42 +542,135 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.countByTypeAndStatus(type.name(), status.name());
     }
 
+    private boolean isSlotAvailable(Long propertyId, LocalDateTime startTime, Long bookingId) {
+        if (bookingSlotIndex.isReady()) {
+            return bookingSlotIndex.isAvailable(propertyId, startTime, bookingId);
+        }
+        // Ids start at 1, so 0 excludes no booking
+        return !bookingRepository.existsSlotBetween(propertyId, BookingStatus.FREE,
+                bookingId != null ? bookingId : 0L,
+                startTime.minus(BookingSlotIndex.SLOT), startTime.plus(BookingSlotIndex.SLOT));
+    }
+
+    /**
+     * Check and reserve the slot in one step, and give it back if the transaction rolls back.
+     */
+    private void reserveSlot(Booking booking, LocalDateTime startTime) {
+        Long propertyId = booking.getProperty().getId();
+        if ((!bookingSlotIndex.isReady() && !isSlotAvailable(propertyId, startTime, booking.getId()))
+                || !bookingSlotIndex.tryReserve(propertyId, startTime, booking.getId())) {
+            throw new BadRequestException("This time slot is not available");
+        }
+        afterCommit(() -> bookingSlotIndex.confirm(propertyId, startTime, booking.getId()));
+        afterRollback(() -> bookingSlotIndex.release(propertyId, startTime, booking.getId()));
+    }
+
+    private void releaseSlotAfterCommit(Booking booking) {
+        Long propertyId = booking.getProperty().getId();
+        LocalDateTime startTime = booking.getScheduledTime();
+        afterCommit(() -> bookingSlotIndex.release(propertyId, startTime, booking.getId()));
+    }
+
+    /**
+     * Keep the upcoming bookings index and the reminder and expiry deadlines in step with the
+     * booking once the change is committed.
+     */
+    private void trackSchedule(Booking booking) {
+        Long bookingId = booking.getId();
+        Long ownerId = booking.getProperty().getOwner().getId();
+        LocalDateTime scheduledTime = booking.getScheduledTime();
+        BookingStatus status = booking.getStatus();
+        int remindersSent = booking.getRemindersSent();
+        afterCommit(() -> {
+            upcomingBookingIndex.update(bookingId, ownerId, scheduledTime, status);
+            bookingDeadlineService.schedule(bookingId, scheduledTime, status, remindersSent);
+        });
+    }
+
+    /**
+     * Load bookings by id, in the order of the ids; ids of bookings that no longer exist are skipped.
+     */
+    private List<BookingDTO> findAllInOrder(List<Long> ids) {
+        Map<Long, Booking> bookings = bookingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, booking -> booking));
+        return ids.stream()
+                .map(bookings::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Flush now so that a slot taken through another instance, caught by the exclusion
+     * constraint, is reported as such instead of failing the commit.
+     */
+    private void flush() {
+        try {
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (message != null && message.contains(BookingSlotIndex.EXCLUSION_CONSTRAINT)) {
+                throw new BadRequestException("This time slot is not available");
+            }
+            throw e;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
     private boolean isAuthorizedToAccessBooking(Booking booking) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser user = currentUser.get();
 
         // Admin can access all bookings
-        if (isAdmin(currentUser)) {
+        if (user.isAdmin()) {
             return true;
         }
 
         // Tenant can access their own bookings
-        if (booking.getTenant().getId().equals(currentUser.getId())) {
+        if (booking.getTenant().getId().equals(user.getId())) {
             return true;
         }
 
         // Property owner can access bookings for their properties
-        if (booking.getProperty().getOwner().getId().equals(currentUser.getId())) {
-            return true;
-        }
-
-        return false;
+        return ownsProperty(user.getId(), booking.getProperty());
     }
 
-    private boolean hasBookingForProperty(Long userId, Long propertyId) {
-        return bookingRepository.findByTenantId(userId, PageRequest.of(0, 10))
-                .stream()
-                .anyMatch(booking -> booking.getProperty().getId().equals(propertyId));
-    }
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
+    /**
+     * The access index only hears about writes on this node, so a hit grants access and a
+     * miss is confirmed against the database.
+     */
+    private boolean ownsProperty(Long userId, Property property) {
+        return accessIndex.ownsProperty(userId, property.getId()) || property.getOwner().getId().equals(userId);
     }
 
-    private boolean isAdmin(User user) {
-        return user.getRole() == UserRole.ADMIN;
+    private boolean hasBookingForProperty(Long userId, Long propertyId) {
+        return accessIndex.hasBookedProperty(userId, propertyId)
+                || bookingRepository.existsByTenantIdAndPropertyId(userId, propertyId);
     }
 
     private void sendBookingNotificationEmails(Booking booking) {
@@ -526,6 +745,9 @@ public class BookingServiceImpl implements BookingService {
 
         if (booking.getProperty().getImageUrls() != null && !booking.getProperty().getImageUrls().isEmpty()) {
             propertyDTO.setImageUrls(booking.getProperty().getImageUrls());
+            propertyDTO.setImages(booking.getProperty().getImageUrls().stream()
+                    .map(ImageVariants::toImage)
+                    .collect(Collectors.toList()));
         }
 
         dto.setProperty(propertyDTO);
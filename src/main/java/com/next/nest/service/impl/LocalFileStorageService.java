@@ -1,39 +1,90 @@
 package com.next.nest.service.impl;
 
+import com.next.nest.dto.PresignedUploadDTO;
+import com.next.nest.event.FileDeletedEvent;
+import com.next.nest.event.FileStoredEvent;
 import com.next.nest.exception.BadRequestException;
 import com.next.nest.exception.FileStorageException;
+import com.next.nest.exception.ResourceNotFoundException;
 import com.next.nest.service.FileStorageService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
 
+/**
+ * Stores uploads on the local disk, deduplicated by content.
+ * <p>
+ * Every upload is hashed (SHA-256) while it streams to a temporary file and kept once, as
+ * {@code .objects/<h0h1>/<h2h3>/<hash>}; the two-level fan-out keeps directories small.
+ * The path in the file URL is a hard link to that object, so URLs, directories and
+ * downloads work as before, and the link count of the object is its reference count:
+ * deleting a file removes its link, and the object goes with the last one. On file
+ * systems without hard links the content is copied instead, without deduplication.
+ * <p>
+ * Each object carries its hash in a user-defined attribute, which all its links share, so
+ * a reference finds its object without reading the content.
+ */
 @Service
 @Slf4j
 public class LocalFileStorageService implements FileStorageService {
 
+    private static final String OBJECTS_DIRECTORY = ".objects";
+    private static final String TEMP_DIRECTORY = ".tmp";
+    private static final String HASH_ATTRIBUTE = "nextnest.sha256";
+    private static final int OBJECT_LOCKS = 256;
+
     private final Path fileStorageLocation;
     
+    private final Path objectLocation;
+    
+    private final Path tempLocation;
+    
+    // Linking to and unlinking from one object must not interleave; striped by the first hash byte
+    private final Object[] objectLocks = new Object[OBJECT_LOCKS];
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
     @Value("${app.url:http://localhost:8080}")
     private String appUrl;
 
-    public LocalFileStorageService(@Value("${app.file.upload-dir:uploads}") String uploadDir) {
+    public LocalFileStorageService(@Value("${app.file.upload-dir:uploads}") String uploadDir,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
         try {
             this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
             Files.createDirectories(this.fileStorageLocation);
+            this.objectLocation = Files.createDirectories(this.fileStorageLocation.resolve(OBJECTS_DIRECTORY));
+            this.tempLocation = Files.createDirectories(this.fileStorageLocation.resolve(TEMP_DIRECTORY));
         } catch (IOException ex) {
             throw new FileStorageException("Could not create the directory where the uploaded files will be stored", ex);
         }
+        for (int i = 0; i < OBJECT_LOCKS; i++) {
+            objectLocks[i] = new Object();
+        }
     }
 
     @Override
@@ -63,21 +114,61 @@ public class LocalFileStorageService implements FileStorageService {
             throw new FileStorageException("Could not create directory: " + directory, ex);
         }
         
-        // Copy the file to the target location
+        // Store the content once and link it at the target location
         Path targetLocation = directoryPath.resolve(newFilename);
         try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            storeContent(inputStream, targetLocation);
         } catch (IOException ex) {
             throw new FileStorageException("Could not store file " + originalFilename, ex);
         }
         
         // Return the URL to access the file
-        return ServletUriComponentsBuilder.fromUriString(appUrl)
+        String fileUrl = ServletUriComponentsBuilder.fromUriString(appUrl)
                 .path("/api/files/")
                 .path(directory)
                 .path("/")
                 .path(newFilename)
                 .toUriString();
+        eventPublisher.publishEvent(new FileStoredEvent(fileUrl, file.getContentType()));
+        return fileUrl;
+    }
+
+    @Override
+    public String storeDerivative(String originalUrl, String filename, byte[] content, String contentType) {
+        if (filename.contains("/") || filename.contains("..")) {
+            throw new BadRequestException("Filename contains invalid path sequence: " + filename);
+        }
+        
+        // Resolve the directory of the original file
+        String[] parts = originalUrl.split("/api/files/");
+        if (parts.length < 2) {
+            throw new BadRequestException("Invalid file URL: " + originalUrl);
+        }
+        Path originalLocation = resolveStoredFile(parts[1]);
+        if (originalLocation == null) {
+            throw new BadRequestException("Invalid file URL: " + originalUrl);
+        }
+        Path targetLocation = originalLocation.resolveSibling(filename);
+        
+        try {
+            // A regenerated derivative replaces the previous one, which gives up its reference
+            release(targetLocation);
+            storeContent(new ByteArrayInputStream(content), targetLocation);
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not store file " + filename, ex);
+        }
+        
+        return originalUrl.substring(0, originalUrl.lastIndexOf('/') + 1) + filename;
+    }
+
+    @Override
+    public PresignedUploadDTO createUpload(String directory, String filename, String contentType) {
+        throw new BadRequestException("Direct uploads are only available with S3 file storage");
+    }
+
+    @Override
+    public String completeUpload(String key, String directory) {
+        throw new BadRequestException("Direct uploads are only available with S3 file storage");
     }
 
     @Override
@@ -91,10 +182,14 @@ public class LocalFileStorageService implements FileStorageService {
             String relativePath = parts[1];
             
             // Resolve the file path
-            Path filePath = this.fileStorageLocation.resolve(relativePath).normalize();
+            Path filePath = resolveStoredFile(relativePath);
             
-            // Delete the file
-            return Files.deleteIfExists(filePath);
+            // Delete the file, and its content once nothing else refers to it
+            boolean deleted = filePath != null && release(filePath);
+            if (deleted) {
+                eventPublisher.publishEvent(new FileDeletedEvent(fileUrl));
+            }
+            return deleted;
         } catch (IOException ex) {
             log.error("Error deleting file: {}", fileUrl, ex);
             return false;
@@ -102,27 +197,177 @@ public class LocalFileStorageService implements FileStorageService {
     }
 
     @Override
-    public byte[] getFile(String fileUrl) {
+    public Resource loadFile(String fileUrl) {
+        // Parse the file path from the URL
+        String[] parts = fileUrl.split("/api/files/");
+        if (parts.length < 2) {
+            throw new BadRequestException("Invalid file URL: " + fileUrl);
+        }
+        
+        // Resolve the file path, which must stay inside the storage location
+        Path filePath = resolveStoredFile(parts[1]);
+        if (filePath == null || !Files.isRegularFile(filePath)) {
+            throw new ResourceNotFoundException("File not found: " + fileUrl);
+        }
+        
+        // Backed by a FileChannel, so it can be sent without copying through the heap
+        return new FileSystemResource(filePath);
+    }
+    
+    /**
+     * Resolve the path of a file URL in the storage location. The object store and the
+     * temporary files are in hidden directories of it, and are not reachable by URL: anyone
+     * could otherwise tell whether some content is stored by asking for its hash.
+     *
+     * @return The path, or null if it is outside the storage location or hidden
+     */
+    private Path resolveStoredFile(String relativePath) {
+        Path path = this.fileStorageLocation.resolve(relativePath).normalize();
+        if (!path.startsWith(this.fileStorageLocation)) {
+            return null;
+        }
+        for (Path segment : this.fileStorageLocation.relativize(path)) {
+            if (segment.toString().startsWith(".")) {
+                return null;
+            }
+        }
+        return path;
+    }
+    
+    /**
+     * Stream the content to a temporary file while hashing it, move it into the object store
+     * unless identical content is already there, and link the object at the target path.
+     */
+    private void storeContent(InputStream content, Path target) throws IOException {
+        Path temp = Files.createTempFile(this.tempLocation, "upload-", null);
         try {
-            // Parse the file path from the URL
-            String[] parts = fileUrl.split("/api/files/");
-            if (parts.length < 2) {
-                throw new BadRequestException("Invalid file URL: " + fileUrl);
+            MessageDigest digest = sha256();
+            try (InputStream input = new DigestInputStream(content, digest)) {
+                Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
             }
-            String relativePath = parts[1];
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path object = objectPath(hash);
             
-            // Resolve the file path
-            Path filePath = this.fileStorageLocation.resolve(relativePath).normalize();
-            
-            // Check if the file exists
-            if (!Files.exists(filePath)) {
-                throw new BadRequestException("File not found: " + fileUrl);
+            synchronized (lockFor(hash)) {
+                if (!Files.exists(object)) {
+                    Files.createDirectories(object.getParent());
+                    Files.move(temp, object, StandardCopyOption.ATOMIC_MOVE);
+                    writeHashAttribute(object, hash);
+                }
+                try {
+                    Files.createLink(target, object);
+                } catch (UnsupportedOperationException | FileSystemException ex) {
+                    if (Files.exists(target)) {
+                        throw ex;
+                    }
+                    Files.copy(object, target);
+                    // Nothing links to the object then, and the copy is released without it
+                    if (linkCount(object) <= 1) {
+                        Files.delete(object);
+                    }
+                }
             }
-            
-            // Read the file content
-            return Files.readAllBytes(filePath);
-        } catch (IOException ex) {
-            throw new FileStorageException("Could not read file: " + fileUrl, ex);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Remove one reference, and the stored content with the last one.
+     *
+     * @return True if the reference existed
+     */
+    private boolean release(Path reference) throws IOException {
+        if (!Files.isRegularFile(reference)) {
+            return false;
+        }
+        String hash = readHashAttribute(reference);
+        if (hash == null && linkCount(reference) > 1) {
+            // Linked to an object without the attribute, e.g. on a file system without user attributes
+            hash = hash(reference);
+        }
+        if (hash == null) {
+            // Stored before deduplication, or copied: there is no object
+            return Files.deleteIfExists(reference);
+        }
+        synchronized (lockFor(hash)) {
+            if (!Files.deleteIfExists(reference)) {
+                return false;
+            }
+            // Files stored before deduplication, or copied, have no object; that is fine
+            Path object = objectPath(hash);
+            if (Files.exists(object) && linkCount(object) <= 1) {
+                Files.delete(object);
+            }
+        }
+        return true;
+    }
+    
+    private Path objectPath(String hash) {
+        return this.objectLocation.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+    
+    private Object lockFor(String hash) {
+        return objectLocks[Integer.parseInt(hash.substring(0, 2), 16) % OBJECT_LOCKS];
+    }
+    
+    /**
+     * Label the object with its hash where the file system allows it; without the label
+     * the hash is computed from the content when a reference is released.
+     */
+    private static void writeHashAttribute(Path object, String hash) {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(object, UserDefinedFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        try {
+            view.write(HASH_ATTRIBUTE, StandardCharsets.US_ASCII.encode(hash));
+        } catch (IOException | UnsupportedOperationException ex) {
+            log.debug("Could not label stored object {} with its hash", object, ex);
+        }
+    }
+    
+    /**
+     * @return The hash of the object the file is a link to, or null if it is not labelled
+     */
+    private static String readHashAttribute(Path file) {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+        if (view == null) {
+            return null;
+        }
+        try {
+            ByteBuffer value = ByteBuffer.allocate(view.size(HASH_ATTRIBUTE));
+            view.read(HASH_ATTRIBUTE, value);
+            value.flip();
+            return StandardCharsets.US_ASCII.decode(value).toString();
+        } catch (IOException | UnsupportedOperationException ex) {
+            // Typically no such attribute
+            return null;
+        }
+    }
+    
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream input = new DigestInputStream(Files.newInputStream(file), digest)) {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private static int linkCount(Path object) throws IOException {
+        try {
+            return (Integer) Files.getAttribute(object, "unix:nlink");
+        } catch (UnsupportedOperationException ex) {
+            // Link counts unknown: keep the content rather than risk deleting it while referenced
+            return Integer.MAX_VALUE;
+        }
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
         }
     }
     
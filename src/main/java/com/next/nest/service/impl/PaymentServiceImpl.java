@@ -1,5 +1,6 @@
 package com.next.nest.service.impl;
 
+import com.next.nest.config.CacheConfig;
 import com.next.nest.dto.*;
 import com.next.nest.entity.Booking;
 import com.next.nest.entity.Property;
@@ -8,20 +9,27 @@ import com.next.nest.entity.User;
 import com.next.nest.entity.enums.ListingStatus;
 import com.next.nest.entity.enums.PaymentStatus;
 import com.next.nest.entity.enums.TransactionType;
-import com.next.nest.entity.enums.UserRole;
+import com.next.nest.event.PropertyChangedEvent;
+import com.next.nest.event.TransactionCreatedEvent;
+import com.next.nest.index.AccessIndex;
 import com.next.nest.exception.BadRequestException;
 import com.next.nest.exception.ResourceNotFoundException;
 import com.next.nest.exception.UnauthorizedException;
+import com.next.nest.index.PropertyDocument;
 import com.next.nest.repository.*;
+import com.next.nest.security.AuthenticatedUser;
+import com.next.nest.security.CurrentUser;
 import com.next.nest.service.PaymentService;
+import com.next.nest.service.PropertyStatisticsService;
 import com.next.nest.util.EmailService;
+import com.next.nest.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +42,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -43,11 +52,15 @@ import java.util.stream.Collectors;
 public class PaymentServiceImpl implements PaymentService {
 
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
     private final BookingRepository bookingRepository;
     private final PropertyRepository propertyRepository;
     private final ServiceRepository serviceRepository;
     private final EmailService emailService;
+    private final PropertyStatisticsService propertyStatisticsService;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccessIndex accessIndex;
 
     @Override
     @Transactional(readOnly = true)
@@ -81,8 +94,8 @@ public class PaymentServiceImpl implements PaymentService {
     @Transactional(readOnly = true)
     public Page<TransactionDTO> findByUserId(Long userId, int page, int size) {
         // Security check: users can only see their own transactions
-        User currentUser = getCurrentUser();
-        if (!currentUser.getId().equals(userId) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(userId) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these transactions");
         }
 
@@ -91,12 +104,29 @@ public class PaymentServiceImpl implements PaymentService {
                 .map(this::mapToDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionDTO> findByUserId(Long userId, String cursor, int size) {
+        // Security check: users can only see their own transactions
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(userId) && !user.isAdmin()) {
+            throw new UnauthorizedException("You are not authorized to access these transactions");
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return CursorPage.of(
+                transactionRepository.findByUserIdAfter(userId, after.getSortKey(), after.getId(), size + 1),
+                size,
+                transaction -> new KeysetCursor(transaction.getCreatedAt(), transaction.getId()),
+                this::mapToDTO);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<TransactionDTO> findByBookingPropertyOwnerId(Long ownerId, int page, int size) {
         // Security check: only the property owner or admin can access these transactions
-        User currentUser = getCurrentUser();
-        if (!currentUser.getId().equals(ownerId) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(ownerId) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these transactions");
         }
 
@@ -113,10 +143,10 @@ public class PaymentServiceImpl implements PaymentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
 
         // Security check: only the tenant, property owner, or admin can access these transactions
-        User currentUser = getCurrentUser();
-        if (!booking.getTenant().getId().equals(currentUser.getId()) &&
-                !booking.getProperty().getOwner().getId().equals(currentUser.getId()) &&
-                !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!booking.getTenant().getId().equals(user.getId()) &&
+                !ownsProperty(user.getId(), booking.getProperty()) &&
+                !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these transactions");
         }
 
@@ -129,8 +159,8 @@ public class PaymentServiceImpl implements PaymentService {
     @Transactional(readOnly = true)
     public Page<TransactionDTO> findByUserIdAndStatus(Long userId, PaymentStatus status, int page, int size) {
         // Security check: users can only see their own transactions
-        User currentUser = getCurrentUser();
-        if (!currentUser.getId().equals(userId) && !isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!user.getId().equals(userId) && !user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these transactions");
         }
 
@@ -143,8 +173,8 @@ public class PaymentServiceImpl implements PaymentService {
     @Transactional(readOnly = true)
     public Page<TransactionDTO> findByType(TransactionType type, int page, int size) {
         // Security check: only admin can access all transactions by type
-        User currentUser = getCurrentUser();
-        if (!isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to access these transactions");
         }
 
@@ -162,7 +192,7 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         // Get the current user
-        User user = getCurrentUser();
+        User user = currentUser.getReference();
 
         // Validate booking if present
         Booking booking = null;
@@ -209,6 +239,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .build();
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        publishTransactionCreated(savedTransaction);
 
         // In a real system, you would integrate with a payment gateway here
         // and redirect the user to the payment page or return payment link
@@ -306,10 +337,10 @@ public class PaymentServiceImpl implements PaymentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + transactionId));
 
         // Security check: only the property owner or admin can initiate a refund
-        User currentUser = getCurrentUser();
+        AuthenticatedUser user = currentUser.get();
         if (transaction.getBooking() != null) {
-            if (!transaction.getBooking().getProperty().getOwner().getId().equals(currentUser.getId()) &&
-                    !isAdmin(currentUser)) {
+            if (!ownsProperty(user.getId(), transaction.getBooking().getProperty()) &&
+                    !user.isAdmin()) {
                 throw new UnauthorizedException("You are not authorized to initiate a refund for this transaction");
             }
         }
@@ -345,6 +376,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .build();
 
         Transaction savedRefundTransaction = transactionRepository.save(refundTransaction);
+        publishTransactionCreated(savedRefundTransaction);
 
         // In a real system, you would integrate with a payment gateway here
         // to initiate the refund process
@@ -359,8 +391,8 @@ public class PaymentServiceImpl implements PaymentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + transactionId));
 
         // Security check: only admin can manually update transaction status
-        User currentUser = getCurrentUser();
-        if (!isAdmin(currentUser)) {
+        AuthenticatedUser user = currentUser.get();
+        if (!user.isAdmin()) {
             throw new UnauthorizedException("You are not authorized to update the status of this transaction");
         }
 
@@ -542,36 +574,38 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     private boolean isAuthorizedToAccessTransaction(Transaction transaction) {
-        User currentUser = getCurrentUser();
+        AuthenticatedUser user = currentUser.get();
 
         // Admin can access all transactions
-        if (isAdmin(currentUser)) {
+        if (user.isAdmin()) {
             return true;
         }
 
         // User can access their own transactions
-        if (transaction.getUser().getId().equals(currentUser.getId())) {
+        if (transaction.getUser().getId().equals(user.getId())) {
             return true;
         }
 
         // Property owner can access transactions related to their properties
+        if (accessIndex.ownsTransactionProperty(user.getId(), transaction.getId())) {
+            return true;
+        }
         if (transaction.getBooking() != null &&
-                transaction.getBooking().getProperty().getOwner().getId().equals(currentUser.getId())) {
+                transaction.getBooking().getProperty().getOwner().getId().equals(user.getId())) {
             return true;
         }
 
         return false;
     }
 
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
+    private boolean ownsProperty(Long userId, Property property) {
+        return accessIndex.ownsProperty(userId, property.getId()) || property.getOwner().getId().equals(userId);
     }
 
-    private boolean isAdmin(User user) {
-        return user.getRole() == UserRole.ADMIN;
+    private void publishTransactionCreated(Transaction transaction) {
+        Booking booking = transaction.getBooking();
+        eventPublisher.publishEvent(new TransactionCreatedEvent(transaction.getId(),
+                booking != null ? booking.getProperty().getId() : null));
     }
 
     private String generateUniqueTransactionId() {
@@ -638,8 +672,11 @@ public class PaymentServiceImpl implements PaymentService {
         // Update property status based on payment type
         // For example, if security deposit is paid, mark the property as rented
         if (type == TransactionType.SECURITY_DEPOSIT) {
+            propertyStatisticsService.statusChanged(property.getStatus(), ListingStatus.RENTED);
             property.setStatus(ListingStatus.RENTED);
             propertyRepository.save(property);
+            Objects.requireNonNull(cacheManager.getCache(CacheConfig.PROPERTY_DETAILS)).evict(property.getId());
+            eventPublisher.publishEvent(new PropertyChangedEvent(PropertyDocument.from(property)));
         }
     }
 
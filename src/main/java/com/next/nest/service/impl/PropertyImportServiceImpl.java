@@ -0,0 +1,315 @@
+package com.next.nest.service.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.next.nest.dto.PropertyDTO;
+import com.next.nest.dto.PropertyImportErrorDTO;
+import com.next.nest.dto.PropertyImportResultDTO;
+import com.next.nest.entity.Property;
+import com.next.nest.entity.User;
+import com.next.nest.event.PropertyChangedEvent;
+import com.next.nest.exception.BadRequestException;
+import com.next.nest.index.PropertyDocument;
+import com.next.nest.repository.PropertyRepository;
+import com.next.nest.repository.UserRepository;
+import com.next.nest.security.CurrentUser;
+import com.next.nest.service.PropertyImportService;
+import com.next.nest.service.PropertyStatisticsService;
+import com.next.nest.service.PropertySummaryService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk listing import from CSV or newline-delimited JSON.
+ * <p>
+ * The file is parsed as a stream and handled in batches, so memory use does not depend on
+ * the file size. Each batch is validated in parallel, then its valid rows are inserted in
+ * one transaction. With sequence ids and {@code hibernate.jdbc.batch_size}, the properties,
+ * amenities and image URLs of a batch each go to the database as JDBC batches. If a batch
+ * fails to insert, its rows are retried one by one, so a bad row only fails itself.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyImportServiceImpl implements PropertyImportService {
+
+    // CSV cells holding a list (amenities, imageUrls) separate their values with this
+    private static final String CSV_LIST_SEPARATOR = ";";
+
+    private final PropertyRepository propertyRepository;
+    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
+    private final PropertySummaryService propertySummaryService;
+    private final PropertyStatisticsService propertyStatisticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.property-import.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public PropertyImportResultDTO importProperties(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("Import file is empty");
+        }
+        boolean csv = isCsv(file);
+        Long ownerId = currentUser.getId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<PropertyImportErrorDTO> errors = new ArrayList<>();
+        int totalRows = 0;
+        int importedCount = 0;
+
+        try (RowReader rows = csv ? csvRows(file.getInputStream()) : ndjsonRows(file.getInputStream())) {
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                batch.add(row);
+                totalRows++;
+                if (batch.size() == batchSize) {
+                    importedCount += importBatch(batch, ownerId, transactionTemplate, errors);
+                    batch.clear();
+                }
+            }
+            importedCount += importBatch(batch, ownerId, transactionTemplate, errors);
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read import file: " + e.getMessage());
+        }
+
+        errors.sort(Comparator.comparing(PropertyImportErrorDTO::getRow));
+        log.info("Imported {} of {} properties for owner {}", importedCount, totalRows, ownerId);
+
+        return PropertyImportResultDTO.builder()
+                .totalRows(totalRows)
+                .importedCount(importedCount)
+                .failedCount(totalRows - importedCount)
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * @return Number of rows of the batch that were inserted
+     */
+    private int importBatch(List<ImportRow> batch, Long ownerId, TransactionTemplate transactionTemplate,
+                            List<PropertyImportErrorDTO> errors) {
+        // Every row is validated by exactly one thread, so the rows need no locking
+        batch.parallelStream()
+                .filter(row -> row.messages.isEmpty())
+                .forEach(row -> row.messages.addAll(validate(row.property)));
+
+        List<ImportRow> valid = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            if (row.messages.isEmpty()) {
+                valid.add(row);
+            } else {
+                errors.add(error(row.number, row.messages));
+            }
+        }
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(valid, ownerId));
+            return valid.size();
+        } catch (RuntimeException batchFailure) {
+            log.warn("Import batch of {} rows failed, retrying row by row: {}", valid.size(), message(batchFailure));
+        }
+
+        int imported = 0;
+        for (ImportRow row : valid) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(row), ownerId));
+                imported++;
+            } catch (RuntimeException rowFailure) {
+                errors.add(error(row.number, List.of(message(rowFailure))));
+            }
+        }
+        return imported;
+    }
+
+    private void insert(List<ImportRow> rows, Long ownerId) {
+        User owner = userRepository.getReferenceById(ownerId);
+        List<Property> properties = rows.stream()
+                .map(row -> PropertyServiceImpl.newProperty(row.property, owner))
+                .collect(Collectors.toList());
+
+        propertyRepository.saveAll(properties);
+        // Ids come from the pooled sequence, so nothing was inserted yet: flush sends it all as batches
+        entityManager.flush();
+
+        propertySummaryService.createForProperties(properties.stream()
+                .map(Property::getId)
+                .collect(Collectors.toList()));
+        for (Property property : properties) {
+            propertyStatisticsService.listingCreated(property);
+            eventPublisher.publishEvent(new PropertyChangedEvent(PropertyDocument.from(property)));
+        }
+        // With open-in-view the request's EntityManager outlives this transaction: detach the
+        // batch, or every later flush dirty-checks it and the whole file stays in memory
+        entityManager.clear();
+    }
+
+    private List<String> validate(PropertyDTO property) {
+        return validator.validate(property).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private RowReader csvRows(InputStream input) throws IOException {
+        CsvMapper csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .findAndAddModules()
+                .build();
+        CsvSchema schema = CsvSchema.emptySchema()
+                .withHeader()
+                .withArrayElementSeparator(CSV_LIST_SEPARATOR);
+        MappingIterator<PropertyDTO> iterator = csvMapper.readerFor(PropertyDTO.class)
+                .with(schema)
+                .readValues(input);
+
+        return new RowReader() {
+            private int number;
+            private long failedAt = -1;
+
+            @Override
+            public ImportRow next() {
+                try {
+                    if (!iterator.hasNextValue()) {
+                        return null;
+                    }
+                    return new ImportRow(++number, iterator.nextValue());
+                } catch (IOException | RuntimeException e) {
+                    // A malformed record is skipped, but a parser that cannot move past it ends the file
+                    long offset = iterator.getCurrentLocation().getCharOffset();
+                    if (offset == failedAt) {
+                        return null;
+                    }
+                    failedAt = offset;
+                    return ImportRow.failed(++number, message(e));
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                iterator.close();
+            }
+        };
+    }
+
+    private RowReader ndjsonRows(InputStream input) {
+        ObjectReader reader = objectMapper.readerFor(PropertyDTO.class);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        return new RowReader() {
+            private int number;
+
+            @Override
+            public ImportRow next() throws IOException {
+                String line;
+                do {
+                    line = lines.readLine();
+                    if (line == null) {
+                        return null;
+                    }
+                } while (line.isBlank());
+
+                number++;
+                try {
+                    PropertyDTO property = reader.readValue(line);
+                    return new ImportRow(number, property);
+                } catch (IOException e) {
+                    return ImportRow.failed(number, message(e));
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                lines.close();
+            }
+        };
+    }
+
+    private static boolean isCsv(MultipartFile file) {
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        String contentType = file.getContentType() == null ? "" : file.getContentType().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv") || contentType.startsWith("text/csv")) {
+            return true;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                || contentType.startsWith("application/x-ndjson") || contentType.startsWith("application/jsonl")) {
+            return false;
+        }
+        throw new BadRequestException("Import file must be CSV (.csv) or newline-delimited JSON (.ndjson, .jsonl)");
+    }
+
+    private static PropertyImportErrorDTO error(int row, List<String> messages) {
+        return PropertyImportErrorDTO.builder()
+                .row(row)
+                .messages(messages)
+                .build();
+    }
+
+    private static String message(Exception e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private interface RowReader extends Closeable {
+
+        /**
+         * @return The next record, or null at the end of the file
+         */
+        ImportRow next() throws IOException;
+    }
+
+    private static final class ImportRow {
+        private final int number;
+        private final PropertyDTO property;
+        private final List<String> messages = new ArrayList<>();
+
+        private ImportRow(int number, PropertyDTO property) {
+            this.number = number;
+            this.property = property;
+        }
+
+        private static ImportRow failed(int number, String parseError) {
+            ImportRow row = new ImportRow(number, null);
+            row.messages.add(parseError);
+            return row;
+        }
+    }
+}
@@ -1,39 +1,77 @@
 package com.next.nest.service.impl;
 
+import com.next.nest.config.CacheConfig;
+import com.next.nest.dto.CursorPage;
+import com.next.nest.dto.FileUploadRequestDTO;
+import com.next.nest.dto.PresignedUploadDTO;
 import com.next.nest.dto.PropertyDTO;
+import com.next.nest.dto.PropertySearchResultDTO;
+import com.next.nest.dto.RentStatisticsDTO;
+import com.next.nest.dto.SuggestionDTO;
 import com.next.nest.dto.UserDTO;
 import com.next.nest.entity.Property;
+import com.next.nest.entity.PropertySummary;
 import com.next.nest.entity.User;
 import com.next.nest.entity.enums.ListingStatus;
 import com.next.nest.entity.enums.PropertyType;
+import com.next.nest.event.PropertyChangedEvent;
 import com.next.nest.exception.BadRequestException;
 import com.next.nest.exception.ResourceNotFoundException;
 import com.next.nest.exception.UnauthorizedException;
+import com.next.nest.index.BoundingBox;
+import com.next.nest.index.PropertyAmenityIndex;
+import com.next.nest.index.PropertyBitmapIndex;
+import com.next.nest.index.PropertyDocument;
+import com.next.nest.index.PropertyFilter;
+import com.next.nest.index.PropertyGeoIndex;
+import com.next.nest.index.PropertyRentStatisticsIndex;
+import com.next.nest.index.PropertySearchIndex;
+import com.next.nest.index.PropertySimilarityIndex;
+import com.next.nest.index.PropertyTypeaheadIndex;
 import com.next.nest.repository.BookingRepository;
 import com.next.nest.repository.PropertyRepository;
-import com.next.nest.repository.UserRepository;
+import com.next.nest.security.AuthenticatedUser;
+import com.next.nest.security.CurrentUser;
 import com.next.nest.service.FileStorageService;
 import com.next.nest.service.PropertyService;
+import com.next.nest.service.PropertyStatisticsService;
+import com.next.nest.service.PropertySummaryService;
 import com.next.nest.service.UserService;
+import com.next.nest.util.KeysetCursor;
+import com.next.nest.util.ImageVariants;
+import com.next.nest.util.ParallelFileUploader;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,13 +80,26 @@ import java.util.stream.Collectors;
 public class PropertyServiceImpl implements PropertyService {
 
     private final PropertyRepository propertyRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
     private final BookingRepository bookingRepository;
     private final FileStorageService fileStorageService;
     private final UserService userService;
+    private final PropertyBitmapIndex propertyBitmapIndex;
+    private final PropertySearchIndex propertySearchIndex;
+    private final PropertyGeoIndex propertyGeoIndex;
+    private final PropertyTypeaheadIndex propertyTypeaheadIndex;
+    private final PropertyAmenityIndex propertyAmenityIndex;
+    private final PropertySimilarityIndex propertySimilarityIndex;
+    private final PropertyRentStatisticsIndex propertyRentStatisticsIndex;
+    private final PropertySummaryService propertySummaryService;
+    private final PropertyStatisticsService propertyStatisticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ParallelFileUploader parallelFileUploader;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#id")
     public PropertyDTO findById(Long id) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
@@ -58,39 +109,55 @@ public class PropertyServiceImpl implements PropertyService {
     @Override
     @Transactional(readOnly = true)
     public Page<PropertyDTO> findAll(int page, int size) {
-        return propertyRepository.findAll(PageRequest.of(page, size, Sort.by("createdAt").descending()))
-                .map(this::mapToDTO);
+        return mapToDTOs(propertyRepository.findAll(PageRequest.of(page, size, Sort.by("createdAt").descending())));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PropertyDTO> findAllActive(int page, int size) {
-        return propertyRepository.findByIsActiveTrue(PageRequest.of(page, size, Sort.by("createdAt").descending()))
-                .map(this::mapToDTO);
+        return mapToDTOs(propertyRepository.findByIsActiveTrue(PageRequest.of(page, size, Sort.by("createdAt").descending())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PropertyDTO> findAllActive(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(propertyRepository.findActiveAfter(after.getSortKey(), after.getId(), size + 1), size);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PropertyDTO> findByOwnerId(Long ownerId, int page, int size) {
-        return propertyRepository.findByOwnerIdAndIsActiveTrue(ownerId, 
-                PageRequest.of(page, size, Sort.by("createdAt").descending()))
-                .map(this::mapToDTO);
+        return mapToDTOs(propertyRepository.findByOwnerIdAndIsActiveTrue(ownerId, 
+                PageRequest.of(page, size, Sort.by("createdAt").descending())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PropertyDTO> findByOwnerId(Long ownerId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(propertyRepository.findByOwnerIdAfter(ownerId, after.getSortKey(), after.getId(), size + 1), size);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PropertyDTO> findByCity(String city, int page, int size) {
-        return propertyRepository.findByCityAndActiveStatus(city, 
-                PageRequest.of(page, size, Sort.by("createdAt").descending()))
-                .map(this::mapToDTO);
+        return mapToDTOs(propertyRepository.findByCityAndActiveStatus(city, 
+                PageRequest.of(page, size, Sort.by("createdAt").descending())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PropertyDTO> findByCity(String city, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(propertyRepository.findByCityAndActiveStatusAfter(city, after.getSortKey(), after.getId(), size + 1), size);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PropertyDTO> findByCityAndLocality(String city, String locality, int page, int size) {
-        return propertyRepository.findByCityAndLocalityAndActiveStatus(city, locality, 
-                PageRequest.of(page, size, Sort.by("createdAt").descending()))
-                .map(this::mapToDTO);
+        return mapToDTOs(propertyRepository.findByCityAndLocalityAndActiveStatus(city, locality, 
+                PageRequest.of(page, size, Sort.by("createdAt").descending())));
     }
 
     @Override
@@ -98,7 +165,33 @@ public class PropertyServiceImpl implements PropertyService {
     public Page<PropertyDTO> findByFilters(String city, PropertyType propertyType, Integer bhkType,
                                            BigDecimal minRent, BigDecimal maxRent,
                                            Map<String, Object> additionalFilters, int page, int size) {
+        return findByFilters(city, propertyType, bhkType, minRent, maxRent, additionalFilters, page, size, false)
+                .getResults();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PropertySearchResultDTO findByFilters(String city, PropertyType propertyType, Integer bhkType,
+                                                 BigDecimal minRent, BigDecimal maxRent,
+                                                 Map<String, Object> additionalFilters, int page, int size,
+                                                 boolean includeFacets) {
+        
+        if (propertyBitmapIndex.isReady()) {
+            PropertyFilter filter = PropertyFilter.fromMap(additionalFilters).toBuilder()
+                    .city(city)
+                    .propertyType(propertyType)
+                    .bhkType(bhkType)
+                    .minRent(minRent)
+                    .maxRent(maxRent)
+                    .build();
+            RoaringBitmap matches = propertyBitmapIndex.filter(filter);
+            return PropertySearchResultDTO.builder()
+                    .results(loadPage(propertyBitmapIndex.page(matches, PageRequest.of(page, size))))
+                    .facets(includeFacets ? propertyBitmapIndex.facets(matches) : null)
+                    .build();
+        }
         
+        // Index is still warming up, fall back to the database
         Specification<Property> spec = (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
             
@@ -161,8 +254,10 @@ public class PropertyServiceImpl implements PropertyService {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
         
-        return propertyRepository.findAll(spec, PageRequest.of(page, size, Sort.by("createdAt").descending()))
-                .map(this::mapToDTO);
+        return PropertySearchResultDTO.builder()
+                .results(mapToDTOs(propertyRepository.findAll(spec,
+                        PageRequest.of(page, size, Sort.by("createdAt").descending()))))
+                .build();
     }
 
     @Override
@@ -173,74 +268,74 @@ public class PropertyServiceImpl implements PropertyService {
         if (latitude == null || longitude == null || radius == null) {
             throw new BadRequestException("Latitude, longitude, and radius are required");
         }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180 || radius <= 0) {
+            throw new BadRequestException("Latitude, longitude, or radius is out of range");
+        }
+        
+        PropertyFilter filter = PropertyFilter.fromMap(filters);
+        
+        if (propertyBitmapIndex.isReady() && propertyGeoIndex.isReady()) {
+            return loadPage(propertyGeoIndex.findWithin(latitude, longitude, radius,
+                    propertyBitmapIndex.filter(filter), PageRequest.of(page, size)));
+        }
         
-        // Convert radius from km to meters
-        Double radiusInMeters = radius * 1000;
+        // Indexes are still warming up: filter, measure and order in the database, so only the
+        // requested page is loaded. The bounding box keeps the coordinate indexes usable.
+        BoundingBox box = BoundingBox.around(latitude, longitude, radius);
+        Specification<Property> spec = (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            
+            predicates.add(criteriaBuilder.equal(root.get("isActive"), true));
+            predicates.add(criteriaBuilder.equal(root.get("status"), ListingStatus.ACTIVE));
+            predicates.add(criteriaBuilder.between(root.get("latitude"), box.getMinLatitude(), box.getMaxLatitude()));
+            
+            if (box.wrapsAntimeridian()) {
+                predicates.add(criteriaBuilder.or(
+                        criteriaBuilder.greaterThanOrEqualTo(root.get("longitude"), box.getMinLongitude()),
+                        criteriaBuilder.lessThanOrEqualTo(root.get("longitude"), box.getMaxLongitude())));
+            } else {
+                predicates.add(criteriaBuilder.between(root.get("longitude"), box.getMinLongitude(), box.getMaxLongitude()));
+            }
+            applyFilter(filter, root, criteriaBuilder, predicates);
+            
+            // The haversine term grows with the distance, so it can stand in for it in the
+            // radius check and the ordering without the square root and arcsine
+            Expression<Double> haversine = haversine(latitude, longitude, root, criteriaBuilder);
+            predicates.add(criteriaBuilder.le(haversine, maxHaversine(radius)));
+            // Dropped again by Spring Data for the count query
+            query.orderBy(criteriaBuilder.asc(haversine), criteriaBuilder.desc(root.get("id")));
+            
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
         
-        return propertyRepository.findPropertiesWithinRadius(latitude, longitude, radiusInMeters, 
-                PageRequest.of(page, size, Sort.by("createdAt").descending()))
-                .map(this::mapToDTO);
+        return mapToDTOs(propertyRepository.findAll(spec, PageRequest.of(page, size)));
     }
 
     @Override
     @Transactional
     public PropertyDTO create(PropertyDTO propertyDTO) {
-        User owner = getCurrentUser();
+        User owner = currentUser.getReference();
         
-        Property property = Property.builder()
-                .title(propertyDTO.getTitle())
-                .description(propertyDTO.getDescription())
-                .propertyType(propertyDTO.getPropertyType())
-                .bhkType(propertyDTO.getBhkType())
-                .rentAmount(propertyDTO.getRentAmount())
-                .securityDeposit(propertyDTO.getSecurityDeposit())
-                .maintenanceCharges(propertyDTO.getMaintenanceCharges())
-                .lockInPeriod(propertyDTO.getLockInPeriod())
-                .squareFeet(propertyDTO.getSquareFeet())
-                .city(propertyDTO.getCity())
-                .locality(propertyDTO.getLocality())
-                .fullAddress(propertyDTO.getFullAddress())
-                .projectName(propertyDTO.getProjectName())
-                .latitude(propertyDTO.getLatitude())
-                .longitude(propertyDTO.getLongitude())
-                .furnishingStatus(propertyDTO.getFurnishingStatus())
-                .ownershipType(propertyDTO.getOwnershipType())
-                .floorNumber(propertyDTO.getFloorNumber())
-                .totalFloors(propertyDTO.getTotalFloors())
-                .propertyAge(propertyDTO.getPropertyAge())
-                .parkingAvailable(propertyDTO.getParkingAvailable())
-                .preferredTenantType(propertyDTO.getPreferredTenantType())
-                .status(ListingStatus.PENDING_VERIFICATION)
-                .owner(owner)
-                .isActive(true)
-                .isVerified(false)
-                .isReadyToMove(propertyDTO.getIsReadyToMove())
-                .isPetFriendly(propertyDTO.getIsPetFriendly())
-                .brokerage(propertyDTO.getBrokerage())
-                .build();
-        
-        if (propertyDTO.getAmenities() != null) {
-            property.setAmenities(new HashSet<>(propertyDTO.getAmenities()));
-        }
-        
-        if (propertyDTO.getImageUrls() != null) {
-            property.setImageUrls(new ArrayList<>(propertyDTO.getImageUrls()));
-        }
+        Property property = newProperty(propertyDTO, owner);
         
         Property savedProperty = propertyRepository.save(property);
+        propertySummaryService.createFor(savedProperty);
+        propertyStatisticsService.listingCreated(savedProperty);
+        eventPublisher.publishEvent(new PropertyChangedEvent(PropertyDocument.from(savedProperty)));
         
         return mapToDTO(savedProperty);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#id")
     public PropertyDTO update(Long id, PropertyDTO propertyDTO) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
         // Check if the current user is the owner
-        User currentUser = getCurrentUser();
-        if (!property.getOwner().getId().equals(currentUser.getId())) {
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId())) {
             throw new UnauthorizedException("You are not authorized to update this property");
         }
         
@@ -274,6 +369,7 @@ public class PropertyServiceImpl implements PropertyService {
         if (property.getStatus() == ListingStatus.ACTIVE) {
             property.setStatus(ListingStatus.PENDING_VERIFICATION);
             property.setIsVerified(false);
+            propertyStatisticsService.statusChanged(ListingStatus.ACTIVE, ListingStatus.PENDING_VERIFICATION);
         }
         
         if (propertyDTO.getAmenities() != null) {
@@ -281,82 +377,160 @@ public class PropertyServiceImpl implements PropertyService {
         }
         
         Property updatedProperty = propertyRepository.save(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(PropertyDocument.from(updatedProperty)));
         
         return mapToDTO(updatedProperty);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#id")
     public void delete(Long id) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
         // Check if the current user is the owner
-        User currentUser = getCurrentUser();
-        if (!property.getOwner().getId().equals(currentUser.getId())) {
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId())) {
             throw new UnauthorizedException("You are not authorized to delete this property");
         }
         
         // Instead of hard delete, just set as inactive
+        propertyStatisticsService.statusChanged(property.getStatus(), ListingStatus.INACTIVE);
         property.setIsActive(false);
         property.setStatus(ListingStatus.INACTIVE);
         propertyRepository.save(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(PropertyDocument.from(property)));
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#id")
     public void changeStatus(Long id, ListingStatus status) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
         // Check if the current user is the owner
-        User currentUser = getCurrentUser();
-        if (!property.getOwner().getId().equals(currentUser.getId())) {
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId())) {
             throw new UnauthorizedException("You are not authorized to change the status of this property");
         }
         
+        propertyStatisticsService.statusChanged(property.getStatus(), status);
         property.setStatus(status);
         propertyRepository.save(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(PropertyDocument.from(property)));
     }
 
+    /**
+     * Not transactional on purpose: the uploads run in parallel with no connection held, and
+     * only appending the resulting URLs takes a (short) transaction.
+     */
     @Override
-    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#id")
     public PropertyDTO addImages(Long id, List<MultipartFile> images) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
         // Check if the current user is the owner
-        User currentUser = getCurrentUser();
-        if (!property.getOwner().getId().equals(currentUser.getId())) {
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId())) {
             throw new UnauthorizedException("You are not authorized to add images to this property");
         }
         
-        List<String> imageUrls = new ArrayList<>();
+        List<String> imageUrls = parallelFileUploader.storeAll(images, "properties/" + id);
+        try {
+            return appendImageUrls(id, imageUrls);
+        } catch (RuntimeException e) {
+            // The URLs were never recorded, so nothing will ever reference these files
+            parallelFileUploader.deleteAll(imageUrls);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PresignedUploadDTO createImageUpload(Long id, FileUploadRequestDTO request) {
+        Property property = propertyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
-        for (MultipartFile image : images) {
-            String imageUrl = fileStorageService.storeFile(image, "properties/" + id);
-            imageUrls.add(imageUrl);
+        // Check if the current user is the owner
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId())) {
+            throw new UnauthorizedException("You are not authorized to add images to this property");
         }
         
-        if (property.getImageUrls() == null) {
-            property.setImageUrls(new ArrayList<>());
+        if (!request.getContentType().startsWith("image/")) {
+            throw new BadRequestException("Only images can be uploaded");
         }
         
-        property.getImageUrls().addAll(imageUrls);
-        Property updatedProperty = propertyRepository.save(property);
+        return fileStorageService.createUpload("properties/" + id, request.getFilename(), request.getContentType());
+    }
+
+    /**
+     * Not transactional for the same reason as {@link #addImages}: checking the uploads is
+     * a storage round trip per key.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#id")
+    public PropertyDTO completeImageUploads(Long id, List<String> keys) {
+        Property property = propertyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
-        return mapToDTO(updatedProperty);
+        // Check if the current user is the owner
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId())) {
+            throw new UnauthorizedException("You are not authorized to add images to this property");
+        }
+        
+        // Completing an upload again is allowed, and must not delete an image the listing already shows
+        Set<String> registered = property.getImageUrls() == null ? Set.of() : Set.copyOf(property.getImageUrls());
+        List<String> imageUrls = new ArrayList<>(keys.size());
+        try {
+            for (String key : new LinkedHashSet<>(keys)) {
+                imageUrls.add(fileStorageService.completeUpload(key, "properties/" + id));
+            }
+            return appendImageUrls(id, imageUrls);
+        } catch (RuntimeException e) {
+            // The URLs were never recorded, so nothing will ever reference these files
+            parallelFileUploader.deleteAll(imageUrls.stream()
+                    .filter(imageUrl -> !registered.contains(imageUrl))
+                    .collect(Collectors.toList()));
+            throw e;
+        }
+    }
+
+    /**
+     * Append in a short transaction of its own; URLs the listing already has are skipped, so
+     * completing the same upload twice registers it once.
+     */
+    private PropertyDTO appendImageUrls(Long id, List<String> imageUrls) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Property current = propertyRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
+            if (current.getImageUrls() == null) {
+                current.setImageUrls(new ArrayList<>());
+            }
+            
+            for (String imageUrl : imageUrls) {
+                if (!current.getImageUrls().contains(imageUrl)) {
+                    current.getImageUrls().add(imageUrl);
+                }
+            }
+            return mapToDTO(propertyRepository.save(current));
+        });
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#id")
     public void removeImage(Long id, String imageUrl) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
         // Check if the current user is the owner
-        User currentUser = getCurrentUser();
-        if (!property.getOwner().getId().equals(currentUser.getId())) {
+        AuthenticatedUser user = currentUser.get();
+        if (!property.getOwner().getId().equals(user.getId())) {
             throw new UnauthorizedException("You are not authorized to remove images from this property");
         }
         
@@ -372,30 +546,46 @@ public class PropertyServiceImpl implements PropertyService {
     @Override
     @Transactional(readOnly = true)
     public List<String> getDistinctCities() {
+        if (propertyTypeaheadIndex.isReady()) {
+            return propertyTypeaheadIndex.getCities();
+        }
         return propertyRepository.findDistinctCities();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<String> getDistinctLocalitiesByCity(String city) {
+        if (propertyTypeaheadIndex.isReady()) {
+            return propertyTypeaheadIndex.getLocalities(city);
+        }
         return propertyRepository.findDistinctLocalitiesByCity(city);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        if (!propertyTypeaheadIndex.isReady()) {
+            // Suggestions are best effort, the search box works without them while the index warms up
+            return List.of();
+        }
+        return propertyTypeaheadIndex.suggest(prefix, limit);
+    }
+
+    @Override
     public Map<String, Object> getPropertyStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        stats.put("totalActive", propertyRepository.countByStatus(ListingStatus.ACTIVE.name()));
-        stats.put("totalPending", propertyRepository.countByStatus(ListingStatus.PENDING_VERIFICATION.name()));
-        stats.put("totalRented", propertyRepository.countByStatus(ListingStatus.RENTED.name()));
-        stats.put("addedToday", propertyRepository.countPropertiesAddedToday());
-        
-        return stats;
+        return propertyStatisticsService.getStatistics();
+    }
+
+    @Override
+    public RentStatisticsDTO getRentStatistics(String city, String locality, Integer bhkType) {
+        if (city == null || city.isBlank()) {
+            throw new BadRequestException("City is required");
+        }
+        return propertyRentStatisticsIndex.statistics(city, locality, bhkType);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#id")
     public void verifyProperty(Long id, boolean isVerified, String notes) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
@@ -403,27 +593,76 @@ public class PropertyServiceImpl implements PropertyService {
         property.setIsVerified(isVerified);
         property.setVerificationNotes(notes);
         
-        if (isVerified) {
-            property.setStatus(ListingStatus.ACTIVE);
-        } else {
-            property.setStatus(ListingStatus.REJECTED);
-        }
+        ListingStatus status = isVerified ? ListingStatus.ACTIVE : ListingStatus.REJECTED;
+        propertyStatisticsService.statusChanged(property.getStatus(), status);
+        property.setStatus(status);
         
         propertyRepository.save(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(PropertyDocument.from(property)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<PropertyDTO> findRecentlyAddedProperties(int limit) {
-        return propertyRepository.findAll(PageRequest.of(0, limit, Sort.by("createdAt").descending()))
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(propertyRepository.findAll(PageRequest.of(0, limit, Sort.by("createdAt").descending()))
+                .getContent());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PropertyDTO> findSimilarProperties(Long id, int limit) {
+        List<Long> similarIds = propertySimilarityIndex.findSimilar(id, limit);
+        if (similarIds.isEmpty()) {
+            if (!propertyRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Property not found with id: " + id);
+            }
+            return List.of();
+        }
+
+        // Neighbours are computed nightly, so drop the ones that stopped being listed since
+        Map<Long, Property> byId = propertyRepository.findAllById(similarIds).stream()
+                .filter(property -> Boolean.TRUE.equals(property.getIsActive())
+                        && property.getStatus() == ListingStatus.ACTIVE)
+                .collect(Collectors.toMap(Property::getId, property -> property));
+        return mapToDTOs(similarIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PropertyDTO> searchProperties(String query, Map<String, Object> filters, int page, int size) {
+        return searchProperties(query, filters, page, size, false).getResults();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PropertySearchResultDTO searchProperties(String query, Map<String, Object> filters, int page, int size,
+                                                    boolean includeFacets) {
+        if (propertyBitmapIndex.isReady() && propertySearchIndex.isReady()) {
+            RoaringBitmap candidates = propertyBitmapIndex.filter(PropertyFilter.fromMap(filters));
+            PageRequest pageRequest = PageRequest.of(page, size);
+            
+            RoaringBitmap matches;
+            Page<Long> ids;
+            // Without search terms there is nothing to rank, keep the newest-first order
+            if (query == null || query.trim().isEmpty()) {
+                matches = candidates;
+                ids = propertyBitmapIndex.page(candidates, pageRequest);
+            } else {
+                Map<Long, Double> scores = propertySearchIndex.score(query, candidates);
+                matches = includeFacets ? PropertyBitmapIndex.bitmapOf(scores.keySet()) : null;
+                ids = propertySearchIndex.rank(scores, pageRequest);
+            }
+            
+            return PropertySearchResultDTO.builder()
+                    .results(loadPage(ids))
+                    .facets(includeFacets ? propertyBitmapIndex.facets(matches) : null)
+                    .build();
+        }
+        
+        // Indexes are still warming up, fall back to the database
         Specification<Property> spec = (root, criteriaQuery, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
             
@@ -449,8 +688,10 @@ public class PropertyServiceImpl implements PropertyService {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
         
-        return propertyRepository.findAll(spec, PageRequest.of(page, size, Sort.by("createdAt").descending()))
-                .map(this::mapToDTO);
+        return PropertySearchResultDTO.builder()
+                .results(mapToDTOs(propertyRepository.findAll(spec,
+                        PageRequest.of(page, size, Sort.by("createdAt").descending()))))
+                .build();
     }
 
     @Override
@@ -459,17 +700,39 @@ public class PropertyServiceImpl implements PropertyService {
         if (amenities == null || amenities.isEmpty()) {
             throw new BadRequestException("Amenities list cannot be empty");
         }
+        return findByAmenities(amenities, new HashSet<>(amenities).size(), filters, page, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PropertyDTO> findByAmenities(List<String> amenities, int minMatches, Map<String, Object> filters,
+                                             int page, int size) {
+        if (amenities == null || amenities.isEmpty()) {
+            throw new BadRequestException("Amenities list cannot be empty");
+        }
+        Set<String> requested = new HashSet<>(amenities);
+        if (minMatches < 1 || minMatches > requested.size()) {
+            throw new BadRequestException("Minimum matches must be between 1 and the number of amenities");
+        }
+        
+        if (propertyBitmapIndex.isReady() && propertyAmenityIndex.isReady()) {
+            RoaringBitmap allowed = propertyBitmapIndex.filter(PropertyFilter.fromMap(filters));
+            return loadPage(propertyAmenityIndex.findMatching(requested, minMatches, allowed, PageRequest.of(page, size)));
+        }
         
+        // Indexes are still warming up, fall back to the database (newest first, not ranked by match count)
         Specification<Property> spec = (root, criteriaQuery, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
             
             predicates.add(criteriaBuilder.equal(root.get("isActive"), true));
             predicates.add(criteriaBuilder.equal(root.get("status"), ListingStatus.ACTIVE));
             
-            // For each amenity, check if it's in the amenities set
-            for (String amenity : amenities) {
-                predicates.add(criteriaBuilder.isMember(amenity, root.get("amenities")));
-            }
+            // One correlated count over the amenities instead of a membership subquery per amenity
+            Subquery<Long> matched = criteriaQuery.subquery(Long.class);
+            Root<Property> matchedProperty = matched.correlate(root);
+            Join<Property, String> amenity = matchedProperty.join("amenities");
+            matched.select(criteriaBuilder.count(amenity)).where(amenity.in(requested));
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(matched, (long) minMatches));
             
             // Apply additional filters
             if (filters != null) {
@@ -479,8 +742,7 @@ public class PropertyServiceImpl implements PropertyService {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
         
-        return propertyRepository.findAll(spec, PageRequest.of(page, size, Sort.by("createdAt").descending()))
-                .map(this::mapToDTO);
+        return mapToDTOs(propertyRepository.findAll(spec, PageRequest.of(page, size, Sort.by("createdAt").descending())));
     }
     
     private void applyFilters(Map<String, Object> filters, jakarta.persistence.criteria.Root<Property> root, 
@@ -526,14 +788,171 @@ public class PropertyServiceImpl implements PropertyService {
         }
     }
     
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
+    /**
+     * The database counterpart of {@link PropertyFilter#matches}.
+     */
+    private static void applyFilter(PropertyFilter filter, Root<Property> root, CriteriaBuilder criteriaBuilder,
+                                    List<Predicate> predicates) {
+        if (filter.getCity() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("city"), filter.getCity()));
+        }
+        if (filter.getPropertyType() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("propertyType"), filter.getPropertyType()));
+        }
+        if (filter.getBhkType() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("bhkType"), filter.getBhkType()));
+        }
+        if (filter.getMinRent() != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("rentAmount"), filter.getMinRent()));
+        }
+        if (filter.getMaxRent() != null) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("rentAmount"), filter.getMaxRent()));
+        }
+        if (filter.getFurnishingStatus() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("furnishingStatus"), filter.getFurnishingStatus()));
+        }
+        if (filter.getIsReadyToMove() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("isReadyToMove"), filter.getIsReadyToMove()));
+        }
+        if (filter.getIsPetFriendly() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("isPetFriendly"), filter.getIsPetFriendly()));
+        }
+        if (filter.getParkingAvailable() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("parkingAvailable"), filter.getParkingAvailable()));
+        }
+        if (filter.getMaxPropertyAge() != null) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("propertyAge"), filter.getMaxPropertyAge()));
+        }
+        if (filter.getPreferredTenantType() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("preferredTenantType"), filter.getPreferredTenantType()));
+        }
+    }
+    
+    /**
+     * The term under the square root of {@link BoundingBox#distanceKm}, between the given
+     * point and each listing.
+     */
+    private static Expression<Double> haversine(double latitude, double longitude, Root<Property> root,
+                                                CriteriaBuilder criteriaBuilder) {
+        double degreesToHalfRadians = Math.PI / 360;
+        Expression<Double> halfDeltaLatitude = criteriaBuilder.prod(
+                criteriaBuilder.diff(root.<Double>get("latitude"), latitude), degreesToHalfRadians);
+        Expression<Double> halfDeltaLongitude = criteriaBuilder.prod(
+                criteriaBuilder.diff(root.<Double>get("longitude"), longitude), degreesToHalfRadians);
+        Expression<Double> sinLatitude = criteriaBuilder.function("sin", Double.class, halfDeltaLatitude);
+        Expression<Double> sinLongitude = criteriaBuilder.function("sin", Double.class, halfDeltaLongitude);
+        Expression<Double> cosLatitude = criteriaBuilder.function("cos", Double.class,
+                criteriaBuilder.prod(root.<Double>get("latitude"), Math.PI / 180));
+        
+        return criteriaBuilder.sum(
+                criteriaBuilder.prod(sinLatitude, sinLatitude),
+                criteriaBuilder.prod(
+                        criteriaBuilder.prod(cosLatitude, Math.cos(Math.toRadians(latitude))),
+                        criteriaBuilder.prod(sinLongitude, sinLongitude)));
+    }
+    
+    /**
+     * @return The haversine term of a point at the given distance
+     */
+    private static double maxHaversine(double radiusKm) {
+        double halfAngle = radiusKm / (2 * BoundingBox.EARTH_RADIUS_KM);
+        return halfAngle >= Math.PI / 2 ? 1 : Math.sin(halfAngle) * Math.sin(halfAngle);
+    }
+    
+    /**
+     * Load the listings for a page of ids produced by an in-memory index, keeping the index order.
+     */
+    private Page<PropertyDTO> loadPage(Page<Long> ids) {
+        Map<Long, Property> propertiesById = propertyRepository.findAllById(ids.getContent())
+                .stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        
+        List<PropertyDTO> content = mapToDTOs(ids.getContent().stream()
+                .map(propertiesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+    
+    private CursorPage<PropertyDTO> toCursorPage(List<Property> rows, int size) {
+        Map<Long, PropertySummary> summaries = propertySummaryService.findByPropertyIds(
+                rows.stream().map(Property::getId).collect(Collectors.toList()));
+        return CursorPage.of(rows, size,
+                property -> new KeysetCursor(property.getCreatedAt(), property.getId()),
+                property -> mapToDTO(property, summaries.get(property.getId())));
+    }
+    
+    /**
+     * Build a new listing, pending verification, from the owner supplied fields of a DTO.
+     */
+    static Property newProperty(PropertyDTO propertyDTO, User owner) {
+        Property property = Property.builder()
+                .title(propertyDTO.getTitle())
+                .description(propertyDTO.getDescription())
+                .propertyType(propertyDTO.getPropertyType())
+                .bhkType(propertyDTO.getBhkType())
+                .rentAmount(propertyDTO.getRentAmount())
+                .securityDeposit(propertyDTO.getSecurityDeposit())
+                .maintenanceCharges(propertyDTO.getMaintenanceCharges())
+                .lockInPeriod(propertyDTO.getLockInPeriod())
+                .squareFeet(propertyDTO.getSquareFeet())
+                .city(propertyDTO.getCity())
+                .locality(propertyDTO.getLocality())
+                .fullAddress(propertyDTO.getFullAddress())
+                .projectName(propertyDTO.getProjectName())
+                .latitude(propertyDTO.getLatitude())
+                .longitude(propertyDTO.getLongitude())
+                .furnishingStatus(propertyDTO.getFurnishingStatus())
+                .ownershipType(propertyDTO.getOwnershipType())
+                .floorNumber(propertyDTO.getFloorNumber())
+                .totalFloors(propertyDTO.getTotalFloors())
+                .propertyAge(propertyDTO.getPropertyAge())
+                .parkingAvailable(propertyDTO.getParkingAvailable())
+                .preferredTenantType(propertyDTO.getPreferredTenantType())
+                .status(ListingStatus.PENDING_VERIFICATION)
+                .owner(owner)
+                .isActive(true)
+                .isVerified(false)
+                .isReadyToMove(propertyDTO.getIsReadyToMove())
+                .isPetFriendly(propertyDTO.getIsPetFriendly())
+                .brokerage(propertyDTO.getBrokerage())
+                .build();
+        
+        if (propertyDTO.getAmenities() != null) {
+            property.setAmenities(new HashSet<>(propertyDTO.getAmenities()));
+        }
+        
+        if (propertyDTO.getImageUrls() != null) {
+            property.setImageUrls(new ArrayList<>(propertyDTO.getImageUrls()));
+        }
+        
+        return property;
     }
     
     private PropertyDTO mapToDTO(Property property) {
+        return mapToDTO(property, propertySummaryService.findByPropertyIds(List.of(property.getId())).get(property.getId()));
+    }
+    
+    /**
+     * Map a page of properties, reading owner details and counters from their summaries
+     * with a single query.
+     */
+    private Page<PropertyDTO> mapToDTOs(Page<Property> properties) {
+        Map<Long, PropertySummary> summaries = propertySummaryService.findByPropertyIds(
+                properties.map(Property::getId).getContent());
+        return properties.map(property -> mapToDTO(property, summaries.get(property.getId())));
+    }
+    
+    private List<PropertyDTO> mapToDTOs(List<Property> properties) {
+        Map<Long, PropertySummary> summaries = propertySummaryService.findByPropertyIds(
+                properties.stream().map(Property::getId).collect(Collectors.toList()));
+        return properties.stream()
+                .map(property -> mapToDTO(property, summaries.get(property.getId())))
+                .collect(Collectors.toList());
+    }
+    
+    private PropertyDTO mapToDTO(Property property, PropertySummary summary) {
         PropertyDTO dto = PropertyDTO.builder()
                 .id(property.getId())
                 .title(property.getTitle())
@@ -560,8 +979,12 @@ public class PropertyServiceImpl implements PropertyService {
                 .preferredTenantType(property.getPreferredTenantType())
                 .status(property.getStatus())
                 .ownerId(property.getOwner().getId())
-                .amenities(property.getAmenities())
-                .imageUrls(property.getImageUrls())
+                // Plain copies, not the Hibernate collections: the DTO outlives the session in the cache
+                .amenities(property.getAmenities() == null ? null : Set.copyOf(property.getAmenities()))
+                .imageUrls(property.getImageUrls() == null ? null : List.copyOf(property.getImageUrls()))
+                .images(property.getImageUrls() == null ? null : property.getImageUrls().stream()
+                        .map(ImageVariants::toImage)
+                        .collect(Collectors.toList()))
                 .isActive(property.getIsActive())
                 .isVerified(property.getIsVerified())
                 .verificationNotes(property.getVerificationNotes())
@@ -572,7 +995,22 @@ public class PropertyServiceImpl implements PropertyService {
                 .updatedAt(property.getUpdatedAt())
                 .build();
         
-        // Include owner details
+        if (summary != null) {
+            dto.setOwner(UserDTO.builder()
+                    .id(summary.getOwnerId())
+                    .firstName(summary.getOwnerFirstName())
+                    .lastName(summary.getOwnerLastName())
+                    .email(summary.getOwnerEmail())
+                    .phoneNumber(summary.getOwnerPhoneNumber())
+                    .profileImageUrl(summary.getOwnerProfileImageUrl())
+                    .role(summary.getOwnerRole())
+                    .build());
+            dto.setBookingCount(summary.getBookingCount());
+            dto.setMaintenanceRequestCount(summary.getMaintenanceRequestCount());
+            return dto;
+        }
+        
+        // No summary yet (created before the summaries were rebuilt), load from the entity graph
         UserDTO ownerDTO = UserDTO.builder()
                 .id(property.getOwner().getId())
                 .firstName(property.getOwner().getFirstName())
@@ -0,0 +1,149 @@
+package com.next.nest.service.impl;
+
+import com.next.nest.entity.Property;
+import com.next.nest.entity.enums.ListingStatus;
+import com.next.nest.repository.PropertyRepository;
+import com.next.nest.service.PropertyStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Listing counts for the admin dashboard, kept in memory so reading them costs nothing
+ * regardless of the size of the {@code properties} table.
+ * <p>
+ * The write paths report every listing they create and every status they change, and the
+ * counters move once the transaction commits. A scheduled job recounts from the database
+ * to repair drift from writes that bypass the services or race with the recount. Until
+ * the first recount has run the statistics are read from the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyStatisticsServiceImpl implements PropertyStatisticsService {
+
+    private final PropertyRepository propertyRepository;
+
+    private final Map<ListingStatus, AtomicLong> countsByStatus = Arrays.stream(ListingStatus.values())
+            .collect(Collectors.toMap(Function.identity(), status -> new AtomicLong(),
+                    (first, second) -> first, () -> new EnumMap<>(ListingStatus.class)));
+    private final ConcurrentMap<LocalDate, AtomicLong> addedByDay = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+
+        if (!ready) {
+            LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+            stats.put("totalActive", propertyRepository.countByStatus(ListingStatus.ACTIVE.name()));
+            stats.put("totalPending", propertyRepository.countByStatus(ListingStatus.PENDING_VERIFICATION.name()));
+            stats.put("totalRented", propertyRepository.countByStatus(ListingStatus.RENTED.name()));
+            stats.put("addedToday", propertyRepository.countCreatedBetween(startOfToday, startOfToday.plusDays(1)));
+            return stats;
+        }
+
+        AtomicLong addedToday = addedByDay.get(LocalDate.now());
+        stats.put("totalActive", countsByStatus.get(ListingStatus.ACTIVE).get());
+        stats.put("totalPending", countsByStatus.get(ListingStatus.PENDING_VERIFICATION).get());
+        stats.put("totalRented", countsByStatus.get(ListingStatus.RENTED).get());
+        stats.put("addedToday", addedToday == null ? 0L : addedToday.get());
+
+        return stats;
+    }
+
+    @Override
+    public void listingCreated(Property property) {
+        LocalDate day = property.getCreatedAt() != null ? property.getCreatedAt().toLocalDate() : LocalDate.now();
+        ListingStatus status = property.getStatus();
+        afterCommit(() -> {
+            addedByDay.computeIfAbsent(day, key -> new AtomicLong()).incrementAndGet();
+            if (status != null) {
+                countsByStatus.get(status).incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public void statusChanged(ListingStatus from, ListingStatus to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> {
+            if (from != null) {
+                countsByStatus.get(from).decrementAndGet();
+            }
+            if (to != null) {
+                countsByStatus.get(to).incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Recount from the database. Runs at startup to seed the counters, then periodically
+     * to overwrite whatever drift has accumulated.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.property-statistics.reconcile-interval:PT15M}",
+            initialDelayString = "${app.property-statistics.reconcile-interval:PT15M}")
+    public void reconcile() {
+        Map<ListingStatus, Long> counted = new EnumMap<>(ListingStatus.class);
+        List<Object[]> rows = propertyRepository.countGroupByStatus();
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counted.put(ListingStatus.valueOf((String) row[0]), ((Number) row[1]).longValue());
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        long addedToday = propertyRepository.countCreatedBetween(today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+
+        long drift = 0;
+        for (ListingStatus status : ListingStatus.values()) {
+            long previous = countsByStatus.get(status).getAndSet(counted.getOrDefault(status, 0L));
+            drift += Math.abs(previous - counted.getOrDefault(status, 0L));
+        }
+        addedByDay.put(today, new AtomicLong(addedToday));
+        addedByDay.keySet().removeIf(day -> day.isBefore(today));
+
+        if (ready && drift > 0) {
+            log.warn("Reconciled property statistics with a drift of {} listings", drift);
+        }
+        ready = true;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
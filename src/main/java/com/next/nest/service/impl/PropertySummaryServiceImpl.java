@@ -0,0 +1,109 @@
+package com.next.nest.service.impl;
+
+import com.next.nest.config.CacheConfig;
+import com.next.nest.entity.Property;
+import com.next.nest.entity.PropertySummary;
+import com.next.nest.entity.User;
+import com.next.nest.repository.PropertySummaryRepository;
+import com.next.nest.service.PropertySummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertySummaryServiceImpl implements PropertySummaryService {
+
+    private final PropertySummaryRepository propertySummaryRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, PropertySummary> findByPropertyIds(Collection<Long> propertyIds) {
+        return propertySummaryRepository.findAllById(propertyIds).stream()
+                .collect(Collectors.toMap(PropertySummary::getPropertyId, Function.identity()));
+    }
+
+    @Override
+    @Transactional
+    public void createFor(Property property) {
+        User owner = property.getOwner();
+        propertySummaryRepository.save(PropertySummary.builder()
+                .propertyId(property.getId())
+                .ownerId(owner.getId())
+                .ownerFirstName(owner.getFirstName())
+                .ownerLastName(owner.getLastName())
+                .ownerEmail(owner.getEmail())
+                .ownerPhoneNumber(owner.getPhoneNumber())
+                .ownerProfileImageUrl(owner.getProfileImageUrl())
+                .ownerRole(owner.getRole())
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void createForProperties(Collection<Long> propertyIds) {
+        if (!propertyIds.isEmpty()) {
+            propertySummaryRepository.createForProperties(propertyIds);
+        }
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#propertyId")
+    public void bookingCreated(Long propertyId) {
+        propertySummaryRepository.adjustBookingCount(propertyId, 1);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#propertyId")
+    public void maintenanceRequestCreated(Long propertyId) {
+        propertySummaryRepository.adjustMaintenanceRequestCount(propertyId, 1);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#propertyId")
+    public void maintenanceRequestDeleted(Long propertyId) {
+        propertySummaryRepository.adjustMaintenanceRequestCount(propertyId, -1);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, allEntries = true)
+    public void ownerUpdated(Long ownerId) {
+        propertySummaryRepository.refreshOwner(ownerId);
+    }
+
+    /**
+     * Recompute all summaries from the source tables. Runs at startup to create the
+     * summaries of properties that predate the table, and nightly to repair any drift from
+     * writes that bypass the services.
+     * <p>
+     * The full-table upsert runs in the background so it does not hold back readiness;
+     * until it completes, properties without a summary are served without owner details
+     * and counts.
+     */
+    @Override
+    @Async
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROPERTY_DETAILS, allEntries = true)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.property-summary.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        int rebuilt = propertySummaryRepository.rebuildAll();
+        log.info("Rebuilt {} property summaries", rebuilt);
+    }
+}
@@ -1,24 +1,47 @@
 package com.next.nest.service.impl;
 
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.HttpMethod;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.amazonaws.services.s3.model.S3Object;
-import com.amazonaws.services.s3.model.S3ObjectInputStream;
-import com.amazonaws.util.IOUtils;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.next.nest.dto.PresignedUploadDTO;
+import com.next.nest.event.FileDeletedEvent;
+import com.next.nest.event.FileStoredEvent;
 import com.next.nest.exception.BadRequestException;
 import com.next.nest.exception.FileStorageException;
+import com.next.nest.exception.ResourceNotFoundException;
 import com.next.nest.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -30,8 +53,18 @@ public class S3FileStorageService implements FileStorageService {
 
     private final AmazonS3 amazonS3;
     
+    private final TransferManager transferManager;
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
     @Value("${app.file.s3.bucket-name}")
     private String bucketName;
+    
+    @Value("${app.file.s3.presign-expiry:PT15M}")
+    private Duration presignExpiry;
+    
+    @Value("${spring.servlet.multipart.max-file-size:20MB}")
+    private DataSize maxFileSize;
 
     @Override
     public String storeFile(MultipartFile file, String directory) {
@@ -60,14 +93,103 @@ public class S3FileStorageService implements FileStorageService {
             metadata.setContentLength(file.getSize());
             metadata.setContentType(file.getContentType());
             
-            // Upload the file to S3
-            amazonS3.putObject(bucketName, key, file.getInputStream(), metadata);
+            // Upload the file to S3, as a parallel multipart upload if it is large
+            if (file.getSize() > transferManager.getConfiguration().getMultipartUploadThreshold()) {
+                // Parts are only uploaded in parallel from a file, a stream goes up one part at a time
+                Path tempFile = Files.createTempFile("upload-", fileExtension);
+                try {
+                    file.transferTo(tempFile);
+                    transferManager.upload(new PutObjectRequest(bucketName, key, tempFile.toFile())
+                            .withMetadata(metadata)).waitForCompletion();
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            } else {
+                try (InputStream inputStream = file.getInputStream()) {
+                    transferManager.upload(bucketName, key, inputStream, metadata).waitForCompletion();
+                }
+            }
             
             // Return the URL to access the file
-            return amazonS3.getUrl(bucketName, key).toString();
-        } catch (IOException ex) {
+            String fileUrl = amazonS3.getUrl(bucketName, key).toString();
+            eventPublisher.publishEvent(new FileStoredEvent(fileUrl, file.getContentType()));
+            return fileUrl;
+        } catch (IOException | AmazonClientException ex) {
             throw new FileStorageException("Could not store file " + originalFilename, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageException("Interrupted while storing file " + originalFilename, ex);
+        }
+    }
+
+    @Override
+    public PresignedUploadDTO createUpload(String directory, String filename, String contentType) {
+        // Clean the filename
+        String originalFilename = StringUtils.cleanPath(filename);
+        if (originalFilename.contains("..")) {
+            throw new BadRequestException("Filename contains invalid path sequence: " + originalFilename);
+        }
+        
+        String key = directory + "/" + UUID.randomUUID() + getFileExtension(originalFilename);
+        Instant expiresAt = Instant.now().plus(presignExpiry);
+        
+        // The content type is signed, so the client cannot upload something else under it
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, key, HttpMethod.PUT)
+                .withExpiration(Date.from(expiresAt))
+                .withContentType(contentType);
+        
+        return PresignedUploadDTO.builder()
+                .key(key)
+                .uploadUrl(amazonS3.generatePresignedUrl(request).toString())
+                .method(HttpMethod.PUT.name())
+                .headers(Map.of(HttpHeaders.CONTENT_TYPE, contentType))
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .build();
+    }
+
+    @Override
+    public String completeUpload(String key, String directory) {
+        if (key == null || !key.startsWith(directory + "/") || key.contains("..")) {
+            throw new BadRequestException("Invalid upload key: " + key);
+        }
+        
+        ObjectMetadata metadata;
+        try {
+            metadata = amazonS3.getObjectMetadata(bucketName, key);
+        } catch (AmazonS3Exception ex) {
+            if (ex.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+                throw new BadRequestException("Upload not found: " + key);
+            }
+            throw ex;
+        }
+        
+        // A presigned PUT cannot limit the size, so oversized uploads are only caught here
+        if (metadata.getContentLength() > maxFileSize.toBytes()) {
+            amazonS3.deleteObject(bucketName, key);
+            throw new BadRequestException("File exceeds the maximum size of " + maxFileSize.toMegabytes() + "MB");
         }
+        
+        String fileUrl = amazonS3.getUrl(bucketName, key).toString();
+        eventPublisher.publishEvent(new FileStoredEvent(fileUrl, metadata.getContentType()));
+        return fileUrl;
+    }
+
+    @Override
+    public String storeDerivative(String originalUrl, String filename, byte[] content, String contentType) {
+        if (filename.contains("/") || filename.contains("..")) {
+            throw new BadRequestException("Filename contains invalid path sequence: " + filename);
+        }
+        
+        // Same prefix as the original, so the derivative sits next to it
+        String originalKey = extractKeyFromUrl(originalUrl);
+        String key = originalKey.substring(0, originalKey.lastIndexOf('/') + 1) + filename;
+        
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(content.length);
+        metadata.setContentType(contentType);
+        
+        amazonS3.putObject(bucketName, key, new ByteArrayInputStream(content), metadata);
+        return amazonS3.getUrl(bucketName, key).toString();
     }
 
     @Override
@@ -78,6 +200,7 @@ public class S3FileStorageService implements FileStorageService {
             
             // Delete the object from S3
             amazonS3.deleteObject(new DeleteObjectRequest(bucketName, key));
+            eventPublisher.publishEvent(new FileDeletedEvent(fileUrl));
             return true;
         } catch (Exception ex) {
             log.error("Error deleting file from S3: {}", fileUrl, ex);
@@ -86,21 +209,12 @@ public class S3FileStorageService implements FileStorageService {
     }
 
     @Override
-    public byte[] getFile(String fileUrl) {
-        try {
-            // Extract key from URL
-            String key = extractKeyFromUrl(fileUrl);
-            
-            // Get the object from S3
-            S3Object s3Object = amazonS3.getObject(bucketName, key);
-            
-            // Read the content
-            try (S3ObjectInputStream objectContent = s3Object.getObjectContent()) {
-                return IOUtils.toByteArray(objectContent);
-            }
-        } catch (IOException ex) {
-            throw new FileStorageException("Could not read file from S3: " + fileUrl, ex);
+    public Resource loadFile(String fileUrl) {
+        String key = extractKeyFromUrl(fileUrl);
+        if (!amazonS3.doesObjectExist(bucketName, key)) {
+            throw new ResourceNotFoundException("File not found: " + fileUrl);
         }
+        return new S3ObjectResource(key);
     }
     
     private String getFileExtension(String filename) {
@@ -112,7 +226,13 @@ public class S3FileStorageService implements FileStorageService {
     }
     
     private String extractKeyFromUrl(String fileUrl) {
-        // This is a simplified implementation and might need adjustment based on the actual S3 URL format
+        // URLs of this client, virtual-hosted or path-style, start with the URL of the empty key
+        String bucketUrl = amazonS3.getUrl(bucketName, "").toString();
+        if (fileUrl.startsWith(bucketUrl)) {
+            return fileUrl.substring(bucketUrl.length());
+        }
+        
+        // Fall back for URLs issued with other client settings
         String[] parts = fileUrl.split(bucketName + ".s3.");
         if (parts.length < 2) {
             throw new BadRequestException("Invalid S3 URL: " + fileUrl);
@@ -123,4 +243,55 @@ public class S3FileStorageService implements FileStorageService {
         int startIndex = part.indexOf("/") + 1;
         return part.substring(startIndex);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Streams the object straight from S3; every call of {@link #getInputStream()} is a new GET.
+     */
+    private class S3ObjectResource extends AbstractResource {
+        
+        private final String key;
+        
+        private ObjectMetadata metadata;
+        
+        private S3ObjectResource(String key) {
+            this.key = key;
+        }
+        
+        @Override
+        public boolean exists() {
+            return true;
+        }
+        
+        @Override
+        public InputStream getInputStream() {
+            return amazonS3.getObject(bucketName, key).getObjectContent();
+        }
+        
+        @Override
+        public long contentLength() {
+            return metadata().getContentLength();
+        }
+        
+        @Override
+        public long lastModified() {
+            return metadata().getLastModified().getTime();
+        }
+        
+        @Override
+        public String getFilename() {
+            return key.substring(key.lastIndexOf('/') + 1);
+        }
+        
+        @Override
+        public String getDescription() {
+            return "S3 object [" + bucketName + "/" + key + "]";
+        }
+        
+        private ObjectMetadata metadata() {
+            if (metadata == null) {
+                metadata = amazonS3.getObjectMetadata(bucketName, key);
+            }
+            return metadata;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.next.nest.entity.User;
 import com.next.nest.entity.enums.UserRole;
 import com.next.nest.exception.*;
 import com.next.nest.repository.UserRepository;
+import com.next.nest.service.PropertySummaryService;
 import com.next.nest.service.UserService;
 import com.next.nest.util.EmailService;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +31,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final PropertySummaryService propertySummaryService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -119,6 +121,7 @@ public class UserServiceImpl implements UserService {
         }
         
         User savedUser = userRepository.save(user);
+        propertySummaryService.ownerUpdated(savedUser.getId());
         return mapToDTO(savedUser);
     }
 
@@ -265,6 +268,7 @@ public class UserServiceImpl implements UserService {
         
         user.setProfileImageUrl(imageUrl);
         User savedUser = userRepository.save(user);
+        propertySummaryService.ownerUpdated(savedUser.getId());
         return mapToDTO(savedUser);
     }
     
@@ -104,6 +104,18 @@ public class EmailService {
 //        );
     }
 
+    @Async
+    public void sendBookingReminderEmail(String to, String name, String propertyTitle,
+                                        String date, String time, String bookingId) {
+        sendSimpleEmail(
+            to,
+            "Booking Reminder - NextNest",
+            "Hi " + name + ",\n\n" +
+            "This is a reminder of the visit to " + propertyTitle + " on " + date + " at " + time + ".\n\n" +
+            "Booking details: " + appUrl + "/bookings/" + bookingId
+        );
+    }
+
     @Async
     public void sendPaymentConfirmationEmail(String to, String name, String propertyTitle,
                                            String amount, String transactionId, String receiptUrl) {
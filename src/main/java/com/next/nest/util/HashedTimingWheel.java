@@ -0,0 +1,116 @@
+package com.next.nest.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hashed timing wheel: timeouts are hashed by their deadline tick into a fixed ring of
+ * buckets, so scheduling and cancelling are constant time whatever the number of pending
+ * timeouts, and advancing the wheel only looks at the buckets of the ticks that passed.
+ * Timeouts further out than one turn of the wheel share a bucket with nearer ones and are
+ * kept until their own tick comes round.
+ * <p>
+ * The wheel has no thread of its own; the caller advances it, typically once per tick.
+ * Cancelled timeouts are dropped when their bucket is next visited.
+ *
+ * @param <T> Task carried by the timeouts
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Timeout<T>>[] buckets;
+
+    private long lastTick;
+    private int size;
+
+    /**
+     * @param wheelSize Number of buckets, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int buckets = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = Math.max(buckets, 1) - 1;
+        this.buckets = new List[mask + 1];
+        for (int i = 0; i <= mask; i++) {
+            this.buckets[i] = new ArrayList<>();
+        }
+        this.lastTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule a task; a deadline that has already passed fires on the next advance.
+     */
+    public synchronized Timeout<T> schedule(T task, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / tickMillis, lastTick + 1);
+        Timeout<T> timeout = new Timeout<>(task, tick);
+        buckets[(int) (tick & mask)].add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Move the wheel up to {@code nowMillis}.
+     *
+     * @return Tasks whose deadline has come
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long now = nowMillis / tickMillis;
+        List<T> due = new ArrayList<>();
+        // After a pause longer than one turn every bucket is visited once
+        long first = Math.max(lastTick + 1, now - mask);
+        for (long tick = first; tick <= now; tick++) {
+            List<Timeout<T>> bucket = buckets[(int) (tick & mask)];
+            List<Timeout<T>> remaining = new ArrayList<>();
+            for (Timeout<T> timeout : bucket) {
+                if (timeout.cancelled) {
+                    size--;
+                } else if (timeout.tick <= now) {
+                    size--;
+                    timeout.fired = true;
+                    due.add(timeout.task);
+                } else {
+                    remaining.add(timeout);
+                }
+            }
+            buckets[(int) (tick & mask)] = remaining;
+        }
+        lastTick = Math.max(lastTick, now);
+        return due;
+    }
+
+    /**
+     * @return Number of timeouts in the wheel, including cancelled ones not dropped yet
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public static final class Timeout<T> {
+
+        private final T task;
+        private final long tick;
+        private volatile boolean cancelled;
+        private volatile boolean fired;
+
+        private Timeout(T task, long tick) {
+            this.task = task;
+            this.tick = tick;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * @return Whether the timeout has neither fired nor been cancelled
+         */
+        public boolean isPending() {
+            return !cancelled && !fired;
+        }
+    }
+}
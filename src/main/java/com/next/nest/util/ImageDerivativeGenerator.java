@@ -0,0 +1,233 @@
+package com.next.nest.util;
+
+import com.next.nest.event.FileDeletedEvent;
+import com.next.nest.event.FileStoredEvent;
+import com.next.nest.service.FileStorageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the resized copies described by {@link ImageVariants} for every stored image,
+ * and deletes them again with the original.
+ * <p>
+ * Decoding and scaling are CPU and memory heavy, so they run on a small private pool after
+ * the upload has returned, instead of on the request thread or the shared {@code @Async}
+ * executor. When the pool and its queue are full, further images are skipped with a warning
+ * rather than resized on the uploading thread; clients fall back to the original for copies
+ * that do not exist, as they do while a copy is still being generated.
+ */
+@Component
+@Slf4j
+public class ImageDerivativeGenerator {
+
+    private static final int QUEUE_CAPACITY = 200;
+    private static final float QUALITY = 0.8f;
+
+    // Larger images are refused rather than decoded: a small, highly compressed upload can
+    // declare an enormous canvas, and decoding time grows with it even when subsampled
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+    private static final int MAX_VARIANT_WIDTH = Arrays.stream(ImageVariants.Size.values())
+            .mapToInt(ImageVariants.Size::getWidth)
+            .max()
+            .orElseThrow();
+
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor executor;
+
+    public ImageDerivativeGenerator(FileStorageService fileStorageService,
+                                    @Value("${app.file.derivative-concurrency:2}") int concurrency) {
+        this.fileStorageService = fileStorageService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gated on the same condition as {@link ImageVariants#toImage}, so copies are generated
+     * for exactly the files that advertise them.
+     */
+    @EventListener
+    public void onFileStored(FileStoredEvent event) {
+        if (ImageVariants.hasVariants(event.getFileUrl())) {
+            try {
+                executor.execute(() -> generate(event.getFileUrl()));
+            } catch (RejectedExecutionException e) {
+                log.warn("Image derivative queue is full, no resized copies generated of {}", event.getFileUrl());
+            }
+        }
+    }
+
+    @EventListener
+    public void onFileDeleted(FileDeletedEvent event) {
+        if (ImageVariants.hasVariants(event.getFileUrl())) {
+            try {
+                executor.execute(() -> delete(event.getFileUrl()));
+            } catch (RejectedExecutionException e) {
+                // Deleting takes no decoding, so do it here rather than leave the copies behind
+                delete(event.getFileUrl());
+            }
+        }
+    }
+
+    private void generate(String fileUrl) {
+        try {
+            BufferedImage original;
+            try (InputStream input = fileStorageService.loadFile(fileUrl).getInputStream()) {
+                original = decode(fileUrl, input);
+            }
+            if (original == null) {
+                return;
+            }
+            for (ImageVariants.Size size : ImageVariants.Size.values()) {
+                byte[] content = encode(resize(original, size.getWidth()));
+                fileStorageService.storeDerivative(fileUrl, ImageVariants.fileName(fileUrl, size),
+                        content, ImageVariants.CONTENT_TYPE);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The original may have been deleted in the meantime; clients fall back to it anyway
+            log.warn("Could not generate resized copies of {}", fileUrl, e);
+        }
+    }
+
+    private void delete(String fileUrl) {
+        for (ImageVariants.Size size : ImageVariants.Size.values()) {
+            try {
+                fileStorageService.deleteFile(ImageVariants.url(fileUrl, size));
+            } catch (RuntimeException e) {
+                log.warn("Could not delete resized copy of {}", fileUrl, e);
+            }
+        }
+    }
+
+    /**
+     * Decode no more of the image than the largest copy needs. The dimensions are read from
+     * the header first, so oversized images are refused before any pixel is decoded, and the
+     * rest is decoded with source subsampling, keeping at least twice the largest copy's
+     * width for {@link #resize} to smooth down from. Peak memory is then bounded by the copy
+     * sizes instead of by the upload.
+     *
+     * @return The decoded image, or {@code null} when it cannot or should not be decoded
+     */
+    private static BufferedImage decode(String fileUrl, InputStream input) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+            Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+            if (readers == null || !readers.hasNext()) {
+                log.warn("Could not decode image {}, no resized copies generated", fileUrl);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    log.warn("Image {} is {}x{} pixels, above the limit of {}, no resized copies generated",
+                            fileUrl, width, height, MAX_SOURCE_PIXELS);
+                    return null;
+                }
+                int step = Math.max(1, width / (2 * MAX_VARIANT_WIDTH));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale to the given width, never up, halving repeatedly first: a single bilinear step
+     * over a large ratio skips most source pixels and aliases. The result is opaque RGB,
+     * with transparency flattened onto white, since JPEG has no alpha channel.
+     */
+    private static BufferedImage resize(BufferedImage image, int maxWidth) {
+        int targetWidth = Math.min(maxWidth, image.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) image.getHeight() * targetWidth / image.getWidth()));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(1, height / 2);
+
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth);
+        return current;
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(ImageVariants.FORMAT).next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                // Lossy explicitly: the WebP writer also offers lossless, larger than the original photo
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null) {
+                    param.setCompressionType(Arrays.stream(types)
+                            .filter("Lossy"::equalsIgnoreCase)
+                            .findFirst()
+                            .orElse(types[0]));
+                }
+                param.setCompressionQuality(QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
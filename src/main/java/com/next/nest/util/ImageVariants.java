@@ -0,0 +1,110 @@
+package com.next.nest.util;
+
+import com.next.nest.dto.ImageDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Naming of the resized copies of uploaded images.
+ * <p>
+ * A copy is stored next to its original as {@code <name>_w<width>.<ext>}, so its URL follows
+ * from the URL of the original on every storage backend and nothing has to be persisted
+ * about it. Copies are WebP when the ImageIO WebP writer on the classpath works on this
+ * platform, JPEG otherwise.
+ */
+public final class ImageVariants {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Size {
+        THUMBNAIL(200),
+        MEDIUM(640),
+        LARGE(1280);
+
+        private final int width;
+    }
+
+    public static final String FORMAT = detectFormat();
+
+    public static final String CONTENT_TYPE = "image/" + FORMAT;
+
+    private static final String EXTENSION = "webp".equals(FORMAT) ? ".webp" : ".jpg";
+
+    private static final Pattern VARIANT_NAME = Pattern.compile(".*_w\\d+\\.(webp|jpg)$");
+
+    private ImageVariants() {
+    }
+
+    /**
+     * Decides both whether copies are generated for a stored file and whether its URLs are
+     * advertised. Only the URL is known when advertising, so the decision is made on the
+     * suffix alone, never on the content type reported at upload.
+     *
+     * @return Whether the URL points to a stored file that resized copies are made of
+     */
+    public static boolean hasVariants(String fileUrl) {
+        if (fileUrl == null || isVariant(fileUrl)) {
+            return false;
+        }
+        String name = fileName(fileUrl);
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && ImageIO.getImageReadersBySuffix(name.substring(dot + 1).toLowerCase(Locale.ROOT)).hasNext();
+    }
+
+    public static boolean isVariant(String fileUrl) {
+        return VARIANT_NAME.matcher(fileName(fileUrl)).matches();
+    }
+
+    /**
+     * @return File name of the copy of the given size, in the directory of the original
+     */
+    public static String fileName(String originalUrl, Size size) {
+        String name = fileName(originalUrl);
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return base + "_w" + size.getWidth() + EXTENSION;
+    }
+
+    public static String url(String originalUrl, Size size) {
+        return originalUrl.substring(0, originalUrl.lastIndexOf('/') + 1) + fileName(originalUrl, size);
+    }
+
+    public static ImageDTO toImage(String url) {
+        if (!hasVariants(url)) {
+            return ImageDTO.builder().url(url).build();
+        }
+        return ImageDTO.builder()
+                .url(url)
+                .thumbnailUrl(url(url, Size.THUMBNAIL))
+                .mediumUrl(url(url, Size.MEDIUM))
+                .largeUrl(url(url, Size.LARGE))
+                .build();
+    }
+
+    /**
+     * The WebP writer wraps a native library, which may be missing for the platform even
+     * though the writer is registered, so it has to encode a pixel before it is trusted.
+     */
+    private static String detectFormat() {
+        try {
+            BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+            if (ImageIO.write(probe, "webp", new ByteArrayOutputStream())) {
+                return "webp";
+            }
+        } catch (IOException | RuntimeException | LinkageError e) {
+            // Fall back to JPEG
+        }
+        return "jpeg";
+    }
+
+    private static String fileName(String fileUrl) {
+        return fileUrl.substring(fileUrl.lastIndexOf('/') + 1);
+    }
+}
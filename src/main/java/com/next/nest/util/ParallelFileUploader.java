@@ -0,0 +1,131 @@
+package com.next.nest.util;
+
+import com.next.nest.exception.FileStorageException;
+import com.next.nest.service.FileStorageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stores several files at once through {@link FileStorageService} on a bounded pool.
+ * <p>
+ * Callers must not hold a database transaction while uploading: the point is that slow
+ * storage round trips never pin a pooled connection. The pool is private to this class
+ * rather than a bean, so it cannot become the executor of {@code @Async} methods. When
+ * the pool and its queue are full, the calling thread uploads itself, which throttles
+ * the callers instead of rejecting them.
+ */
+@Component
+@Slf4j
+public class ParallelFileUploader {
+
+    private static final int QUEUE_CAPACITY = 100;
+
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor executor;
+
+    public ParallelFileUploader(FileStorageService fileStorageService,
+                                @Value("${app.file.upload-concurrency:8}") int concurrency) {
+        this.fileStorageService = fileStorageService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-upload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Store all files concurrently. Either every file is stored, or none is: if any upload
+     * fails, the files already stored are deleted again and the first failure is thrown.
+     *
+     * @param files The files to store
+     * @param directory The directory path to store the files in
+     * @return The URLs of the stored files, in the order of the files
+     */
+    public List<String> storeAll(List<MultipartFile> files, String directory) {
+        // Set on the first failure, so uploads that have not started yet are skipped
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<Future<String>> uploads = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            uploads.add(executor.submit(() -> abandoned.get() ? null : fileStorageService.storeFile(file, directory)));
+        }
+
+        List<String> urls = new ArrayList<>(files.size());
+        RuntimeException failure = null;
+        boolean interrupted = false;
+        // Wait for every upload, even after a failure or an interrupt, so every stored file is
+        // accounted for and can be deleted again
+        for (Future<String> upload : uploads) {
+            while (true) {
+                try {
+                    String url = upload.get();
+                    if (url != null) {
+                        urls.add(url);
+                    }
+                    break;
+                } catch (ExecutionException e) {
+                    abandoned.set(true);
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException runtimeException
+                                ? runtimeException
+                                : new FileStorageException("Could not store file", e.getCause());
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    // The flag is cleared by the exception and restored once all uploads are done
+                    interrupted = true;
+                    abandoned.set(true);
+                    if (failure == null) {
+                        failure = new FileStorageException("Interrupted while storing files", e);
+                    }
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+            deleteAll(urls);
+            throw failure;
+        }
+        return urls;
+    }
+
+    /**
+     * Best-effort removal of stored files, for rolling back an upload that cannot be used.
+     */
+    public void deleteAll(List<String> urls) {
+        for (String url : urls) {
+            try {
+                if (!fileStorageService.deleteFile(url)) {
+                    log.warn("Could not delete orphaned file {}", url);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not delete orphaned file {}", url, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,28 @@
+-- Entity ids move from IDENTITY columns to one pooled sequence per entity so Hibernate can
+-- batch inserts. Hibernate's pooled optimizer reads each nextval as the top of a block of 50
+-- ids, so every sequence starts 50 above the highest existing id.
+-- On a fresh database the tables do not exist yet and Hibernate creates the sequences itself.
+DO $$
+DECLARE
+    mapping TEXT[][] := ARRAY[
+        ['bookings', 'booking_seq'],
+        ['conversations', 'conversation_seq'],
+        ['maintenance_requests', 'maintenance_request_seq'],
+        ['messages', 'message_seq'],
+        ['properties', 'property_seq'],
+        ['roommate_requests', 'roommate_request_seq'],
+        ['roommate_responses', 'roommate_response_seq'],
+        ['services', 'service_seq'],
+        ['service_providers', 'service_provider_seq'],
+        ['transactions', 'transaction_seq'],
+        ['users', 'user_seq']
+    ];
+    max_id BIGINT;
+BEGIN
+    FOR i IN 1 .. array_length(mapping, 1) LOOP
+        IF to_regclass(mapping[i][1]) IS NOT NULL AND to_regclass(mapping[i][2]) IS NULL THEN
+            EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', mapping[i][1]) INTO max_id;
+            EXECUTE format('CREATE SEQUENCE %I START WITH %s INCREMENT BY 50', mapping[i][2], max_id + 50);
+        END IF;
+    END LOOP;
+END $$;
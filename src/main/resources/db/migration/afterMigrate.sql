@@ -0,0 +1,45 @@
+-- The database counterpart of BookingSlotIndex: bookings of a property that are still to
+-- happen (PENDING or CONFIRMED) must not overlap, across all instances. Bookings in other
+-- statuses are history and are left alone, even where they overlap.
+-- Runs after every migration and, on a fresh database whose tables Hibernate creates only
+-- after Flyway, once more from BookingSlotConstraint. The constraint is only replaced when
+-- its comment shows an older definition, and only added when no active bookings overlap;
+-- BookingSlotConstraint reports leftover overlaps on the health endpoint.
+-- The interval is BookingSlotIndex.SLOT and has to change with it.
+DO $$
+BEGIN
+    IF to_regclass('bookings') IS NULL THEN
+        RETURN;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM pg_constraint
+               WHERE conname = 'bookings_no_overlapping_slots'
+                 AND obj_description(oid, 'pg_constraint') = 'active bookings, 60 minute slots') THEN
+        RETURN;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM bookings a
+               JOIN bookings b ON b.property_id = a.property_id AND b.id > a.id
+                AND b.scheduled_time < a.scheduled_time + interval '60 minutes'
+                AND a.scheduled_time < b.scheduled_time + interval '60 minutes'
+               WHERE a.status IN ('PENDING', 'CONFIRMED') AND b.status IN ('PENDING', 'CONFIRMED')) THEN
+        RAISE WARNING 'Active bookings overlap, constraint bookings_no_overlapping_slots not added';
+        RETURN;
+    END IF;
+
+    -- btree_gist lets the GiST index compare property ids with = next to the range overlap
+    BEGIN
+        CREATE EXTENSION IF NOT EXISTS btree_gist;
+    EXCEPTION WHEN insufficient_privilege THEN
+        RAISE WARNING 'No permission to create extension btree_gist, constraint bookings_no_overlapping_slots not added';
+        RETURN;
+    END;
+
+    ALTER TABLE bookings
+        DROP CONSTRAINT IF EXISTS bookings_no_overlapping_slots,
+        ADD CONSTRAINT bookings_no_overlapping_slots
+            EXCLUDE USING gist (property_id WITH =,
+                                tsrange(scheduled_time, scheduled_time + interval '60 minutes') WITH &&)
+            WHERE (status IN ('PENDING', 'CONFIRMED'));
+    COMMENT ON CONSTRAINT bookings_no_overlapping_slots ON bookings IS 'active bookings, 60 minute slots';
+END $$;
@@ -0,0 +1,108 @@
+package com.next.nest.controller;
+
+import com.next.nest.service.impl.LocalFileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional and range requests against a file on disk.
+ */
+@ExtendWith(MockitoExtension.class)
+class FileControllerTest {
+
+    private static final String URL = "/files/properties/photo.txt";
+    private static final String CONTENT = "0123456789";
+
+    @Mock
+    private LocalFileStorageService localFileStorageService;
+
+    @TempDir
+    private Path uploadDir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.writeString(uploadDir.resolve("photo.txt"), CONTENT, StandardCharsets.US_ASCII);
+        when(localFileStorageService.loadFile("/api/files/properties/photo.txt"))
+                .thenReturn(new FileSystemResource(file));
+        mockMvc = MockMvcBuilders.standaloneSetup(new FileController(localFileStorageService)).build();
+    }
+
+    @Test
+    void fullRequestReturnsTheFileWithAnETag() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModified() throws Exception {
+        String etag = etag();
+
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void singleRangeReturnsPartialContent() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void rangeBeyondTheFileIsNotSatisfiable() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void staleIfRangeReturnsTheWholeFile() throws Exception {
+        mockMvc.perform(get(URL)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().string(CONTENT));
+    }
+
+    private String etag() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get(URL)).andReturn().getResponse();
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals(CONTENT, response.getContentAsString());
+        return etag;
+    }
+}
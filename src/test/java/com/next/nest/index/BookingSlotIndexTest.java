@@ -0,0 +1,77 @@
+package com.next.nest.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingSlotIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void everyVisitIsFreeWithoutBookings() {
+        List<LocalDateTime> free = BookingSlotIndex.freeSlots(DAY, List.of());
+
+        assertEquals(visits(BookingSlotIndex.FIRST_VISIT, BookingSlotIndex.LAST_VISIT), free);
+    }
+
+    @Test
+    void bookingsOnNeighbouringDaysDoNotBlockTheDay() {
+        List<LocalDateTime> booked = List.of(
+                DAY.minusDays(1).atTime(23, 30),
+                DAY.plusDays(1).atStartOfDay());
+
+        List<LocalDateTime> free = BookingSlotIndex.freeSlots(DAY, booked);
+
+        assertEquals(visits(BookingSlotIndex.FIRST_VISIT, BookingSlotIndex.LAST_VISIT), free);
+    }
+
+    @Test
+    void bookingAtTheLastVisitBlocksTheVisitsItOverlaps() {
+        List<LocalDateTime> free = BookingSlotIndex.freeSlots(DAY, List.of(DAY.atTime(BookingSlotIndex.LAST_VISIT)));
+
+        assertEquals(visits(BookingSlotIndex.FIRST_VISIT, LocalTime.of(17, 30)), free);
+    }
+
+    @Test
+    void backToBackBookingsBlockOnlyTheVisitsTheyOverlap() {
+        List<LocalDateTime> booked = List.of(DAY.atTime(10, 0), DAY.atTime(11, 0));
+
+        List<LocalDateTime> free = BookingSlotIndex.freeSlots(DAY, booked);
+
+        // 09:00 ends as the first booking starts, 12:00 starts as the second one ends
+        List<LocalDateTime> expected = new ArrayList<>();
+        expected.add(DAY.atTime(9, 0));
+        expected.addAll(visits(LocalTime.of(12, 0), BookingSlotIndex.LAST_VISIT));
+        assertEquals(expected, free);
+    }
+
+    @Test
+    void bookingStartingBeforeTheFirstVisitBlocksTheVisitsItRunsInto() {
+        List<LocalDateTime> free = BookingSlotIndex.freeSlots(DAY, List.of(DAY.atTime(8, 45)));
+
+        assertEquals(visits(LocalTime.of(10, 0), BookingSlotIndex.LAST_VISIT), free);
+    }
+
+    @Test
+    void bookingEndingAtTheFirstVisitLeavesItFree() {
+        List<LocalDateTime> free = BookingSlotIndex.freeSlots(DAY, List.of(DAY.atTime(8, 0)));
+
+        assertEquals(visits(BookingSlotIndex.FIRST_VISIT, BookingSlotIndex.LAST_VISIT), free);
+    }
+
+    private static List<LocalDateTime> visits(LocalTime from, LocalTime to) {
+        List<LocalDateTime> visits = new ArrayList<>();
+        for (LocalDateTime visit = DAY.atTime(from); !visit.isAfter(DAY.atTime(to));
+             visit = visit.plus(BookingSlotIndex.VISIT_INTERVAL)) {
+            visits.add(visit);
+        }
+        return visits;
+    }
+}
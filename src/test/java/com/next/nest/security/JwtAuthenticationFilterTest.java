@@ -0,0 +1,105 @@
+package com.next.nest.security;
+
+import com.next.nest.entity.User;
+import com.next.nest.entity.enums.UserRole;
+import com.next.nest.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The filter puts an {@link AuthenticatedUser} built from the loaded user into the security
+ * context, which is what {@link CurrentUser} reads instead of loading the user again.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "token";
+    private static final String EMAIL = "tenant@example.com";
+
+    @Mock
+    private JwtService jwtService;
+    @Mock
+    private UserServiceImpl userDetailsService;
+
+    private JwtAuthenticationFilter filter;
+    private MockFilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService);
+        filterChain = new MockFilterChain();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenSetsAnAuthenticatedUserPrincipal() throws Exception {
+        User user = User.builder().email(EMAIL).role(UserRole.TENANT).build();
+        user.setId(7L);
+        when(jwtService.extractUsername(TOKEN)).thenReturn(EMAIL);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user);
+        when(jwtService.isTokenValid(TOKEN, user)).thenReturn(true);
+
+        filter.doFilter(bearer(TOKEN), new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, authentication.getPrincipal());
+        assertEquals(7L, principal.getId());
+        assertEquals(EMAIL, principal.getEmail());
+        assertEquals(UserRole.TENANT, principal.getRole());
+        assertEquals("ROLE_TENANT", authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElse(null));
+        assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    void invalidTokenLeavesTheRequestUnauthenticated() throws Exception {
+        User user = User.builder().email(EMAIL).role(UserRole.TENANT).build();
+        when(jwtService.extractUsername(TOKEN)).thenReturn(EMAIL);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user);
+        when(jwtService.isTokenValid(TOKEN, user)).thenReturn(false);
+
+        filter.doFilter(bearer(TOKEN), new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    void requestWithoutTokenIsPassedOnUntouched() throws Exception {
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(filterChain.getRequest());
+        verifyNoInteractions(jwtService, userDetailsService);
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
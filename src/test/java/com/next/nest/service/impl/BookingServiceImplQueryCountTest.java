@@ -0,0 +1,211 @@
+package com.next.nest.service.impl;
+
+import com.next.nest.dto.BookingDTO;
+import com.next.nest.entity.Booking;
+import com.next.nest.entity.Property;
+import com.next.nest.entity.User;
+import com.next.nest.entity.enums.BookingStatus;
+import com.next.nest.entity.enums.BookingType;
+import com.next.nest.entity.enums.FurnishingStatus;
+import com.next.nest.entity.enums.ListingStatus;
+import com.next.nest.entity.enums.PropertyOwnershipType;
+import com.next.nest.entity.enums.PropertyType;
+import com.next.nest.entity.enums.UserRole;
+import com.next.nest.exception.UnauthorizedException;
+import com.next.nest.repository.BookingRepository;
+import com.next.nest.repository.PropertyRepository;
+import com.next.nest.repository.UserRepository;
+import com.next.nest.security.AuthenticatedUser;
+import com.next.nest.service.BookingService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Counts the statements Hibernate runs for a booking read against a real database: the caller
+ * comes from the request's principal, so no query looks them up.
+ * <p>
+ * Warm-ups and scheduled jobs query the same database while the tests run, so only the
+ * statements of the test thread are counted.
+ */
+@SpringBootTest
+@Testcontainers
+class BookingServiceImplQueryCountTest {
+
+    private static final AtomicInteger USER_NUMBER = new AtomicInteger();
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                TestThreadStatements.class::getName);
+    }
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PropertyRepository propertyRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User tenant;
+    private User otherUser;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(user(UserRole.LANDLORD));
+        tenant = userRepository.save(user(UserRole.TENANT));
+        otherUser = userRepository.save(user(UserRole.TENANT));
+        Property property = propertyRepository.save(property(owner));
+        booking = bookingRepository.save(Booking.builder()
+                .property(property)
+                .tenant(tenant)
+                .bookingType(BookingType.PROPERTY_VISIT)
+                .status(BookingStatus.PENDING)
+                .scheduledTime(LocalDateTime.now().plusDays(1).withNano(0))
+                .build());
+
+        TestThreadStatements.record(Thread.currentThread());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestThreadStatements.record(null);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void findByIdAsTenantLoadsOnlyTheTenantShownInTheBooking() {
+        authenticate(tenant);
+
+        BookingDTO result = bookingService.findById(booking.getId());
+
+        assertEquals(booking.getId(), result.getId());
+        // Entities are loaded by id, nothing looks the caller up by email
+        assertEquals(1, TestThreadStatements.on("users"));
+        assertEquals(0, TestThreadStatements.matching("email="));
+    }
+
+    @Test
+    void findByIdAsOtherUserRunsOnlyTheBookingAndPropertyStatements() {
+        authenticate(otherUser);
+
+        assertThrows(UnauthorizedException.class, () -> bookingService.findById(booking.getId()));
+
+        // The booking, then its property for the owner id
+        assertEquals(2, TestThreadStatements.all().size());
+        assertEquals(0, TestThreadStatements.on("users"));
+    }
+
+    /**
+     * Keeps the SQL Hibernate prepares on one thread. Hibernate creates the inspector from its
+     * class name, so the state is static.
+     */
+    public static class TestThreadStatements implements StatementInspector {
+
+        private static final List<String> statements = new CopyOnWriteArrayList<>();
+        private static volatile Thread recorded;
+
+        static void record(Thread thread) {
+            statements.clear();
+            recorded = thread;
+        }
+
+        static List<String> all() {
+            return statements;
+        }
+
+        static long on(String table) {
+            return matching(" from " + table + " ");
+        }
+
+        static long matching(String fragment) {
+            return statements.stream()
+                    .map(sql -> sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " "))
+                    .filter(sql -> sql.contains(fragment))
+                    .count();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == recorded) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    private static void authenticate(User user) {
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static User user(UserRole role) {
+        int number = USER_NUMBER.incrementAndGet();
+        return User.builder()
+                .firstName("User")
+                .lastName(String.valueOf(number))
+                .email("user" + number + "@example.com")
+                .password("password")
+                .phoneNumber("90000" + String.format("%05d", number))
+                .role(role)
+                .build();
+    }
+
+    private static Property property(User owner) {
+        return Property.builder()
+                .title("Flat")
+                .description("Two bedroom flat")
+                .propertyType(PropertyType.FLAT)
+                .bhkType(2)
+                .rentAmount(new BigDecimal("25000"))
+                .securityDeposit(new BigDecimal("50000"))
+                .maintenanceCharges(new BigDecimal("2000"))
+                .lockInPeriod(11)
+                .squareFeet(900.0)
+                .city("Pune")
+                .locality("Baner")
+                .fullAddress("1 Baner Road, Pune")
+                .projectName("Baner Heights")
+                .furnishingStatus(FurnishingStatus.SEMI_FURNISHED)
+                .ownershipType(PropertyOwnershipType.FREEHOLD)
+                .propertyAge(3)
+                .parkingAvailable(true)
+                .preferredTenantType("Family")
+                .status(ListingStatus.ACTIVE)
+                .owner(owner)
+                .isActive(true)
+                .isReadyToMove(true)
+                .isPetFriendly(false)
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.next.nest.service.impl;
+
+import com.next.nest.dto.BookingDTO;
+import com.next.nest.entity.Booking;
+import com.next.nest.entity.Property;
+import com.next.nest.entity.User;
+import com.next.nest.entity.enums.BookingStatus;
+import com.next.nest.entity.enums.BookingType;
+import com.next.nest.entity.enums.UserRole;
+import com.next.nest.exception.UnauthorizedException;
+import com.next.nest.index.AccessIndex;
+import com.next.nest.index.BookingSlotIndex;
+import com.next.nest.index.UpcomingBookingIndex;
+import com.next.nest.repository.BookingRepository;
+import com.next.nest.repository.PropertyRepository;
+import com.next.nest.repository.UserRepository;
+import com.next.nest.security.AuthenticatedUser;
+import com.next.nest.security.CurrentUser;
+import com.next.nest.service.BookingDeadlineService;
+import com.next.nest.service.PropertySummaryService;
+import com.next.nest.util.EmailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The authorization path reads the caller from the request's principal, so it must not
+ * query the users table.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingServiceImplTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final Long OWNER_ID = 2L;
+    private static final Long OTHER_USER_ID = 3L;
+    private static final Long PROPERTY_ID = 20L;
+    private static final Long BOOKING_ID = 10L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private PropertyRepository propertyRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private PropertySummaryService propertySummaryService;
+    @Mock
+    private BookingSlotIndex bookingSlotIndex;
+    @Mock
+    private UpcomingBookingIndex upcomingBookingIndex;
+    @Mock
+    private BookingDeadlineService bookingDeadlineService;
+    @Mock
+    private AccessIndex accessIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookingServiceImpl bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingServiceImpl(bookingRepository, propertyRepository, new CurrentUser(userRepository),
+                emailService, propertySummaryService, bookingSlotIndex, upcomingBookingIndex, bookingDeadlineService,
+                accessIndex, eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void findByIdAsTenantRunsOnlyTheBookingQuery() {
+        authenticate(TENANT_ID, UserRole.TENANT);
+        when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking()));
+
+        BookingDTO booking = bookingService.findById(BOOKING_ID);
+
+        assertEquals(BOOKING_ID, booking.getId());
+        verify(bookingRepository, times(1)).findById(BOOKING_ID);
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findByIdAsOwnerRunsOnlyTheBookingQuery() {
+        authenticate(OWNER_ID, UserRole.LANDLORD);
+        when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking()));
+        when(accessIndex.ownsProperty(OWNER_ID, PROPERTY_ID)).thenReturn(true);
+
+        bookingService.findById(BOOKING_ID);
+
+        verify(bookingRepository, times(1)).findById(BOOKING_ID);
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findByIdAsOtherUserIsRejectedWithoutQueryingUsers() {
+        authenticate(OTHER_USER_ID, UserRole.TENANT);
+        when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking()));
+
+        assertThrows(UnauthorizedException.class, () -> bookingService.findById(BOOKING_ID));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findByTenantIdOfAnotherTenantIsRejectedWithoutAnyQuery() {
+        authenticate(OTHER_USER_ID, UserRole.TENANT);
+
+        assertThrows(UnauthorizedException.class, () -> bookingService.findByTenantId(TENANT_ID, 0, 10));
+
+        verifyNoInteractions(bookingRepository, userRepository);
+    }
+
+    private static void authenticate(Long userId, UserRole role) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user" + userId + "@example.com", role);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static Booking booking() {
+        User owner = User.builder().role(UserRole.LANDLORD).build();
+        owner.setId(OWNER_ID);
+        User tenant = User.builder().role(UserRole.TENANT).build();
+        tenant.setId(TENANT_ID);
+        Property property = Property.builder().owner(owner).title("Flat").build();
+        property.setId(PROPERTY_ID);
+
+        Booking booking = Booking.builder()
+                .property(property)
+                .tenant(tenant)
+                .bookingType(BookingType.PROPERTY_VISIT)
+                .status(BookingStatus.PENDING)
+                .scheduledTime(LocalDateTime.now().plusDays(1))
+                .build();
+        booking.setId(BOOKING_ID);
+        return booking;
+    }
+}
@@ -0,0 +1,121 @@
+package com.next.nest.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stored content is kept once under {@code .objects} and linked at every file path; the link
+ * count decides when the content itself is deleted.
+ */
+class LocalFileStorageServiceTest {
+
+    private static final String APP_URL = "http://localhost:8080";
+    private static final byte[] CONTENT = "the same photo".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    private Path uploadDir;
+
+    private LocalFileStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        storageService = new LocalFileStorageService(uploadDir.toString(), event -> { });
+        ReflectionTestUtils.setField(storageService, "appUrl", APP_URL);
+    }
+
+    @Test
+    void storingTheSameContentTwiceKeepsOneObject() throws IOException {
+        String first = storageService.storeFile(image("first.jpg", CONTENT), "properties");
+        String second = storageService.storeFile(image("second.jpg", CONTENT), "properties");
+
+        assertNotEquals(first, second);
+        List<Path> objects = objects();
+        assertEquals(1, objects.size());
+        assertArrayEquals(CONTENT, Files.readAllBytes(objects.get(0)));
+        // The object and both files are the same content
+        assertEquals(3, linkCount(objects.get(0)));
+        assertTrue(Files.isSameFile(stored(first), stored(second)));
+    }
+
+    @Test
+    void deletingOneReferenceKeepsTheOther() throws IOException {
+        String first = storageService.storeFile(image("first.jpg", CONTENT), "properties");
+        String second = storageService.storeFile(image("second.jpg", CONTENT), "properties");
+
+        assertTrue(storageService.deleteFile(first));
+
+        assertFalse(Files.exists(stored(first)));
+        assertArrayEquals(CONTENT, Files.readAllBytes(stored(second)));
+        assertEquals(1, objects().size());
+        assertEquals(2, linkCount(objects().get(0)));
+    }
+
+    @Test
+    void deletingTheLastReferenceRemovesTheObject() throws IOException {
+        String first = storageService.storeFile(image("first.jpg", CONTENT), "properties");
+        String second = storageService.storeFile(image("second.jpg", CONTENT), "properties");
+
+        assertTrue(storageService.deleteFile(first));
+        assertTrue(storageService.deleteFile(second));
+
+        assertFalse(Files.exists(stored(second)));
+        assertEquals(List.of(), objects());
+        assertFalse(storageService.deleteFile(second));
+    }
+
+    @Test
+    void replacingADerivativeReleasesTheOldContent() throws IOException {
+        byte[] oldThumbnail = "old thumbnail".getBytes(StandardCharsets.UTF_8);
+        byte[] newThumbnail = "new thumbnail".getBytes(StandardCharsets.UTF_8);
+        String original = storageService.storeFile(image("photo.jpg", CONTENT), "properties");
+
+        String thumbnail = storageService.storeDerivative(original, "photo-thumb.jpg", oldThumbnail, "image/jpeg");
+        assertEquals(2, objects().size());
+
+        String replaced = storageService.storeDerivative(original, "photo-thumb.jpg", newThumbnail, "image/jpeg");
+
+        assertEquals(thumbnail, replaced);
+        assertArrayEquals(newThumbnail, Files.readAllBytes(stored(replaced)));
+        // The original and the new thumbnail; nothing refers to the old thumbnail any more
+        List<Path> objects = objects();
+        assertEquals(2, objects.size());
+        for (Path object : objects) {
+            assertFalse(Arrays.equals(oldThumbnail, Files.readAllBytes(object)));
+        }
+    }
+
+    private static MockMultipartFile image(String filename, byte[] content) {
+        return new MockMultipartFile("file", filename, "image/jpeg", content);
+    }
+
+    private Path stored(String fileUrl) {
+        return uploadDir.resolve(fileUrl.substring((APP_URL + "/api/files/").length()));
+    }
+
+    private List<Path> objects() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadDir.resolve(".objects"))) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static int linkCount(Path file) throws IOException {
+        return (Integer) Files.getAttribute(file, "unix:nlink");
+    }
+}
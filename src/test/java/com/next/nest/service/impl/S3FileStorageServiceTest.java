@@ -0,0 +1,142 @@
+package com.next.nest.service.impl;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.next.nest.config.S3Config;
+import com.next.nest.dto.PresignedUploadDTO;
+import com.next.nest.event.FileStoredEvent;
+import com.next.nest.exception.BadRequestException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the S3 storage against MinIO, with the clients built as {@link S3Config} builds them.
+ */
+@Testcontainers
+class S3FileStorageServiceTest {
+
+    private static final String BUCKET = "nextnest-test";
+    private static final String DIRECTORY = "properties/1";
+
+    // S3 requires parts of at least 5MB, except the last one
+    private static final DataSize PART_SIZE = DataSize.ofMegabytes(5);
+
+    @Container
+    private static final MinIOContainer minio = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z");
+
+    private static AmazonS3 amazonS3;
+    private static TransferManager transferManager;
+
+    private ApplicationEventPublisher eventPublisher;
+    private S3FileStorageService storageService;
+
+    @BeforeAll
+    static void setUpClients() {
+        // Picked up by the default credentials chain the client is built with
+        System.setProperty("aws.accessKeyId", minio.getUserName());
+        System.setProperty("aws.secretKey", minio.getPassword());
+
+        S3Config config = new S3Config();
+        amazonS3 = config.amazonS3("us-east-1", minio.getS3URL(), true);
+        transferManager = config.transferManager(amazonS3, PART_SIZE, PART_SIZE, 4);
+        amazonS3.createBucket(BUCKET);
+    }
+
+    @AfterAll
+    static void tearDownClients() {
+        transferManager.shutdownNow();
+    }
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        storageService = new S3FileStorageService(amazonS3, transferManager, eventPublisher);
+        ReflectionTestUtils.setField(storageService, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(storageService, "presignExpiry", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(storageService, "maxFileSize", DataSize.ofMegabytes(20));
+    }
+
+    @Test
+    void presignedUploadIsStoredOnCompletion() throws Exception {
+        byte[] content = randomBytes(2048);
+        PresignedUploadDTO upload = storageService.createUpload(DIRECTORY, "photo.jpg", "image/jpeg");
+
+        assertEquals(200, put(upload, content));
+        String fileUrl = storageService.completeUpload(upload.getKey(), DIRECTORY);
+
+        ObjectMetadata metadata = amazonS3.getObjectMetadata(BUCKET, upload.getKey());
+        assertEquals(content.length, metadata.getContentLength());
+        assertEquals("image/jpeg", metadata.getContentType());
+        assertTrue(fileUrl.endsWith(upload.getKey()));
+        verify(eventPublisher).publishEvent(any(FileStoredEvent.class));
+    }
+
+    @Test
+    void oversizedPresignedUploadIsRejectedAndDeleted() throws Exception {
+        ReflectionTestUtils.setField(storageService, "maxFileSize", DataSize.ofKilobytes(1));
+        PresignedUploadDTO upload = storageService.createUpload(DIRECTORY, "photo.jpg", "image/jpeg");
+
+        assertEquals(200, put(upload, randomBytes(2048)));
+
+        assertThrows(BadRequestException.class, () -> storageService.completeUpload(upload.getKey(), DIRECTORY));
+        assertFalse(amazonS3.doesObjectExist(BUCKET, upload.getKey()));
+        verify(eventPublisher, never()).publishEvent(any(FileStoredEvent.class));
+    }
+
+    @Test
+    void uploadAboveThresholdIsStoredInParts() {
+        byte[] content = randomBytes((int) PART_SIZE.toBytes() * 2 + 1024);
+        MockMultipartFile file = new MockMultipartFile("file", "plan.pdf", "application/pdf", content);
+
+        String fileUrl = storageService.storeFile(file, DIRECTORY);
+
+        String key = fileUrl.substring(fileUrl.indexOf(DIRECTORY));
+        ObjectMetadata metadata = amazonS3.getObjectMetadata(BUCKET, key);
+        assertEquals(content.length, metadata.getContentLength());
+        // The ETag of a multipart upload ends with the number of parts
+        assertTrue(metadata.getETag().endsWith("-3"), metadata.getETag());
+        verify(eventPublisher).publishEvent(any(FileStoredEvent.class));
+    }
+
+    private static int put(PresignedUploadDTO upload, byte[] content) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(upload.getUploadUrl()))
+                .method(upload.getMethod(), HttpRequest.BodyPublishers.ofByteArray(content));
+        upload.getHeaders().forEach(request::header);
+        return HttpClient.newHttpClient()
+                .send(request.build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,85 @@
+package com.next.nest.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK = 100;
+    // Eight buckets, so one turn of the wheel is 800 ms
+    private static final int WHEEL_SIZE = 8;
+
+    private HashedTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel<>(TICK, WHEEL_SIZE, 0);
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextTick() {
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("past", -500);
+
+        assertEquals(List.of("past"), wheel.advance(TICK));
+        assertFalse(timeout.isPending());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineAfterTheWheelHasMovedOnFiresOnTheNextTick() {
+        wheel.advance(1_000);
+        wheel.schedule("late", 500);
+
+        assertEquals(List.of(), wheel.advance(1_099));
+        assertEquals(List.of("late"), wheel.advance(1_100));
+    }
+
+    @Test
+    void timeoutMoreThanOneTurnOutWaitsForItsOwnTick() {
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("far", 2_000);
+
+        // Its bucket is visited on every turn before the deadline
+        assertEquals(List.of(), wheel.advance(500));
+        assertEquals(List.of(), wheel.advance(1_999));
+        assertTrue(timeout.isPending());
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of("far"), wheel.advance(2_000));
+        assertFalse(timeout.isPending());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advancingAfterAPauseLongerThanOneTurnFiresEverythingDue() {
+        wheel.schedule("a", 300);
+        wheel.schedule("b", 1_500);
+        wheel.schedule("c", 5_000);
+
+        assertEquals(Set.of("a", "b"), new HashSet<>(wheel.advance(3_000)));
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of(), wheel.advance(4_999));
+        assertEquals(List.of("c"), wheel.advance(5_000));
+    }
+
+    @Test
+    void cancelledTimeoutNeverFiresAndIsDroppedWhenItsBucketIsVisited() {
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 300);
+        wheel.schedule("kept", 300);
+
+        cancelled.cancel();
+
+        assertFalse(cancelled.isPending());
+        assertEquals(2, wheel.size());
+        assertEquals(List.of("kept"), wheel.advance(300));
+        assertEquals(0, wheel.size());
+    }
+}